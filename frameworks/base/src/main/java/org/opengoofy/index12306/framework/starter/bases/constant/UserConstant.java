@@ -43,4 +43,14 @@ public final class UserConstant {
      * 用户 Token Key
      */
     public static final String USER_TOKEN_KEY = "token";
+
+    /**
+     * 已吊销 Token 集合 Key，Score 为 Token 最晚过期时间戳
+     */
+    public static final String REVOKED_TOKEN_KEY = "index12306-user-service:revoked-token";
+
+    /**
+     * 已吊销 Token 广播频道，网关订阅后同步到本地
+     */
+    public static final String REVOKED_TOKEN_CHANNEL = "index12306-user-service:revoked-token-channel";
 }
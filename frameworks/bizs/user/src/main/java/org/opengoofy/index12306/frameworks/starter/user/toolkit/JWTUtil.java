@@ -42,7 +42,7 @@ import static org.opengoofy.index12306.framework.starter.bases.constant.UserCons
 @Slf4j
 public final class JWTUtil {
 
-    private static final long EXPIRATION = 86400L;
+    public static final long EXPIRATION = 86400L;
     public static final String TOKEN_PREFIX = "Bearer ";
     public static final String ISS = "index12306";
     public static final String SECRET = "SecretKey039245678901232039487623456783092349288901402967890140939827";
@@ -17,10 +17,35 @@
 
 package org.opengoofy.index12306.framework.starter.cache;
 
+import jakarta.validation.constraints.NotBlank;
+import org.opengoofy.index12306.framework.starter.cache.core.CacheLoader;
+
+import java.util.concurrent.TimeUnit;
+
 /**
  * 多级缓存
  *
  * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
  */
 public interface MultistageCache extends Cache {
+
+    /**
+     * 依次查询本地缓存、分布式缓存，如查询结果为空，以"安全"的方式调用 {@link CacheLoader} 加载缓存
+     */
+    <T> T get(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout);
+
+    /**
+     * 依次查询本地缓存、分布式缓存，如查询结果为空，以"安全"的方式调用 {@link CacheLoader} 加载缓存
+     */
+    <T> T get(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit);
+
+    /**
+     * 放入缓存，同时写入本地缓存以及分布式缓存，并通知其它实例失效本地缓存
+     */
+    void put(@NotBlank String key, Object value, long timeout, TimeUnit timeUnit);
+
+    /**
+     * 仅失效当前实例本地缓存
+     */
+    void invalidateLocal(@NotBlank String key);
 }
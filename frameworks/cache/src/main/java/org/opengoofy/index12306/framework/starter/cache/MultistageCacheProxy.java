@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.framework.starter.cache.config.MultistageCacheProperties;
+import org.opengoofy.index12306.framework.starter.cache.core.CacheLoader;
+import org.opengoofy.index12306.framework.starter.cache.toolkit.CacheUtil;
+import org.opengoofy.index12306.framework.starter.cache.toolkit.FastJson2Util;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多级缓存之本地 Caffeine 缓存 + 分布式缓存代理
+ * 读请求优先命中本地缓存，写请求同时写入本地缓存以及分布式缓存，并通过 Redis 发布订阅通知其它实例失效本地缓存
+ * 本地缓存仅保存 JSON 字符串，每次读取反序列化出新对象，调用方修改返回值不会影响其它调用方
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Slf4j
+public class MultistageCacheProxy implements MultistageCache, MessageListener {
+
+    private static final String INVALIDATE_MESSAGE_SEPARATOR = "|";
+
+    private final DistributedCache distributedCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MultistageCacheProperties multistageCacheProperties;
+    private final com.github.benmanes.caffeine.cache.Cache<String, String> localCache;
+
+    /**
+     * 当前实例标识，忽略自身发出的失效通知，避免刚写入的本地缓存被清除
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public MultistageCacheProxy(DistributedCache distributedCache, StringRedisTemplate stringRedisTemplate, MultistageCacheProperties multistageCacheProperties) {
+        this.distributedCache = distributedCache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.multistageCacheProperties = multistageCacheProperties;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(multistageCacheProperties.getLocalMaximumSize())
+                .expireAfterWrite(multistageCacheProperties.getLocalTimeout(), multistageCacheProperties.getLocalTimeUnit())
+                .build();
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> clazz) {
+        String localValue = localCache.getIfPresent(key);
+        if (localValue != null) {
+            return fromLocalValue(localValue, clazz);
+        }
+        T result = distributedCache.get(key, clazz);
+        if (!CacheUtil.isNullOrBlank(result)) {
+            localCache.put(key, toLocalValue(result));
+        }
+        return result;
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout) {
+        String localValue = localCache.getIfPresent(key);
+        if (localValue != null) {
+            return fromLocalValue(localValue, clazz);
+        }
+        T result = distributedCache.safeGet(key, clazz, cacheLoader, timeout);
+        if (!CacheUtil.isNullOrBlank(result)) {
+            localCache.put(key, toLocalValue(result));
+        }
+        return result;
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit) {
+        String localValue = localCache.getIfPresent(key);
+        if (localValue != null) {
+            return fromLocalValue(localValue, clazz);
+        }
+        T result = distributedCache.safeGet(key, clazz, cacheLoader, timeout, timeUnit);
+        if (!CacheUtil.isNullOrBlank(result)) {
+            localCache.put(key, toLocalValue(result));
+        }
+        return result;
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        distributedCache.put(key, value);
+        localCache.put(key, toLocalValue(value));
+        publishInvalidate(key);
+    }
+
+    @Override
+    public void put(String key, Object value, long timeout, TimeUnit timeUnit) {
+        distributedCache.put(key, value, timeout, timeUnit);
+        localCache.put(key, toLocalValue(value));
+        publishInvalidate(key);
+    }
+
+    @Override
+    public Boolean putIfAllAbsent(@NotNull Collection<String> keys) {
+        return distributedCache.putIfAllAbsent(keys);
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        Boolean result = distributedCache.delete(key);
+        localCache.invalidate(key);
+        publishInvalidate(key);
+        return result;
+    }
+
+    @Override
+    public Long delete(@NotNull Collection<String> keys) {
+        Long result = distributedCache.delete(keys);
+        localCache.invalidateAll(keys);
+        keys.forEach(this::publishInvalidate);
+        return result;
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return localCache.getIfPresent(key) != null || distributedCache.hasKey(key);
+    }
+
+    @Override
+    public void invalidateLocal(@NotBlank String key) {
+        localCache.invalidate(key);
+    }
+
+    @Override
+    public Object getInstance() {
+        return distributedCache.getInstance();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separatorIndex = body.indexOf(INVALIDATE_MESSAGE_SEPARATOR);
+        if (separatorIndex < 0) {
+            return;
+        }
+        if (!instanceId.equals(body.substring(0, separatorIndex))) {
+            localCache.invalidate(body.substring(separatorIndex + 1));
+        }
+    }
+
+    private String toLocalValue(Object value) {
+        return value instanceof String ? (String) value : JSON.toJSONString(value);
+    }
+
+    private <T> T fromLocalValue(String localValue, Class<T> clazz) {
+        if (String.class.isAssignableFrom(clazz)) {
+            return clazz.cast(localValue);
+        }
+        return JSON.parseObject(localValue, FastJson2Util.buildType(clazz));
+    }
+
+    private void publishInvalidate(String key) {
+        try {
+            stringRedisTemplate.convertAndSend(multistageCacheProperties.getInvalidateTopic(), instanceId + INVALIDATE_MESSAGE_SEPARATOR + key);
+        } catch (Throwable ex) {
+            log.error("多级缓存发布本地缓存失效通知失败，Key：{}", key, ex);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.cache;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.opengoofy.index12306.framework.starter.cache.core.CacheLoader;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 未开启多级缓存时的代理，所有读写直接委托分布式缓存，不保存本地缓存
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@RequiredArgsConstructor
+public class PassThroughMultistageCacheProxy implements MultistageCache {
+
+    private final DistributedCache distributedCache;
+
+    @Override
+    public <T> T get(String key, Class<T> clazz) {
+        return distributedCache.get(key, clazz);
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout) {
+        return distributedCache.safeGet(key, clazz, cacheLoader, timeout);
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit) {
+        return distributedCache.safeGet(key, clazz, cacheLoader, timeout, timeUnit);
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        distributedCache.put(key, value);
+    }
+
+    @Override
+    public void put(String key, Object value, long timeout, TimeUnit timeUnit) {
+        distributedCache.put(key, value, timeout, timeUnit);
+    }
+
+    @Override
+    public Boolean putIfAllAbsent(@NotNull Collection<String> keys) {
+        return distributedCache.putIfAllAbsent(keys);
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        return distributedCache.delete(key);
+    }
+
+    @Override
+    public Long delete(@NotNull Collection<String> keys) {
+        return distributedCache.delete(keys);
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return distributedCache.hasKey(key);
+    }
+
+    @Override
+    public void invalidateLocal(@NotBlank String key) {
+    }
+
+    @Override
+    public Object getInstance() {
+        return distributedCache.getInstance();
+    }
+}
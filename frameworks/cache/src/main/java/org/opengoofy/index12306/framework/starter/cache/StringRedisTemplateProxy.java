@@ -38,7 +38,13 @@ import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scripting.support.ResourceScriptSource;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -57,6 +63,12 @@ public class StringRedisTemplateProxy implements DistributedCache {
     private static final String LUA_PUT_IF_ALL_ABSENT_SCRIPT_PATH = "lua/putIfAllAbsent.lua";
     private static final String SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX = "safe_get_distributed_lock_get:";
 
+    /**
+     * 正在加载中的缓存 Key 与共享加载结果映射
+     */
+    private final Map<String, CompletableFuture<Object>> pendingLoads = new ConcurrentHashMap<>();
+    private final ThreadLocal<Set<String>> loadingKeys = ThreadLocal.withInitial(HashSet::new);
+
     @Override
     public <T> T get(String key, Class<T> clazz) {
         String value = stringRedisTemplate.opsForValue().get(key);
@@ -153,6 +165,38 @@ public class StringRedisTemplateProxy implements DistributedCache {
                 || Optional.ofNullable(bloomFilter).map(each -> !each.contains(key)).orElse(false)) {
             return result;
         }
+        // 单机请求合并，同一实例内相同 Key 及类型仅由一个线程竞争分布式锁并加载，其余线程等待共享结果
+        String pendingLoadKey = key + ":" + clazz.getName();
+        Set<String> currentLoadingKeys = loadingKeys.get();
+        // 加载器内部重入加载同一 Key 时，等待自身持有的 Future 会死锁，直接走分布式锁加载（Redisson 锁可重入）
+        if (currentLoadingKeys.contains(pendingLoadKey)) {
+            return lockAndLoad(key, clazz, cacheLoader, timeout, timeUnit, bloomFilter, cacheGetIfAbsent);
+        }
+        CompletableFuture<Object> pendingLoad = new CompletableFuture<>();
+        CompletableFuture<Object> existingLoad = pendingLoads.putIfAbsent(pendingLoadKey, pendingLoad);
+        if (existingLoad != null) {
+            return clazz.cast(awaitPendingLoad(existingLoad));
+        }
+        currentLoadingKeys.add(pendingLoadKey);
+        try {
+            result = lockAndLoad(key, clazz, cacheLoader, timeout, timeUnit, bloomFilter, cacheGetIfAbsent);
+            pendingLoad.complete(result);
+        } catch (Throwable ex) {
+            pendingLoad.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            currentLoadingKeys.remove(pendingLoadKey);
+            if (currentLoadingKeys.isEmpty()) {
+                loadingKeys.remove();
+            }
+            pendingLoads.remove(pendingLoadKey, pendingLoad);
+        }
+        return result;
+    }
+
+    private <T> T lockAndLoad(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit,
+                              RBloomFilter<String> bloomFilter, CacheGetIfAbsent<String> cacheGetIfAbsent) {
+        T result;
         RLock lock = redissonClient.getLock(SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX + key);
         lock.lock();
         try {
@@ -169,6 +213,21 @@ public class StringRedisTemplateProxy implements DistributedCache {
         return result;
     }
 
+    private Object awaitPendingLoad(CompletableFuture<Object> pendingLoad) {
+        try {
+            return pendingLoad.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+
     @Override
     public void put(String key, Object value, long timeout) {
         put(key, value, timeout, redisProperties.getValueTimeUnit());
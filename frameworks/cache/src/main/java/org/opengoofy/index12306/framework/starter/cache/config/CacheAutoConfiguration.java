@@ -18,6 +18,8 @@
 package org.opengoofy.index12306.framework.starter.cache.config;
 
 import lombok.AllArgsConstructor;
+import org.opengoofy.index12306.framework.starter.cache.MultistageCacheProxy;
+import org.opengoofy.index12306.framework.starter.cache.PassThroughMultistageCacheProxy;
 import org.opengoofy.index12306.framework.starter.cache.RedisKeySerializer;
 import org.opengoofy.index12306.framework.starter.cache.StringRedisTemplateProxy;
 import org.redisson.api.RBloomFilter;
@@ -25,7 +27,10 @@ import org.redisson.api.RedissonClient;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * 缓存配置自动装配
@@ -33,7 +38,7 @@ import org.springframework.data.redis.core.StringRedisTemplate;
  * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
  */
 @AllArgsConstructor
-@EnableConfigurationProperties({RedisDistributedProperties.class, BloomFilterPenetrateProperties.class})
+@EnableConfigurationProperties({RedisDistributedProperties.class, BloomFilterPenetrateProperties.class, MultistageCacheProperties.class})
 public class CacheAutoConfiguration {
 
     private final RedisDistributedProperties redisDistributedProperties;
@@ -67,4 +72,38 @@ public class CacheAutoConfiguration {
         stringRedisTemplate.setKeySerializer(redisKeySerializer);
         return new StringRedisTemplateProxy(stringRedisTemplate, redisDistributedProperties, redissonClient);
     }
+
+    /**
+     * 多级缓存，本地 Caffeine 缓存 + 分布式缓存
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = MultistageCacheProperties.PREFIX, name = "enabled", havingValue = "true")
+    public MultistageCacheProxy multistageCacheProxy(StringRedisTemplateProxy stringRedisTemplateProxy,
+                                                     StringRedisTemplate stringRedisTemplate,
+                                                     MultistageCacheProperties multistageCacheProperties) {
+        return new MultistageCacheProxy(stringRedisTemplateProxy, stringRedisTemplate, multistageCacheProperties);
+    }
+
+    /**
+     * 未开启多级缓存时直接委托分布式缓存，依赖 {@link org.opengoofy.index12306.framework.starter.cache.MultistageCache} 的组件无需感知开关
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = MultistageCacheProperties.PREFIX, name = "enabled", havingValue = "false", matchIfMissing = true)
+    public PassThroughMultistageCacheProxy passThroughMultistageCacheProxy(StringRedisTemplateProxy stringRedisTemplateProxy) {
+        return new PassThroughMultistageCacheProxy(stringRedisTemplateProxy);
+    }
+
+    /**
+     * 订阅多级缓存本地失效通知
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = MultistageCacheProperties.PREFIX, name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer multistageCacheMessageListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                                 MultistageCacheProxy multistageCacheProxy,
+                                                                                 MultistageCacheProperties multistageCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(multistageCacheProxy, new ChannelTopic(multistageCacheProperties.getInvalidateTopic()));
+        return container;
+    }
 }
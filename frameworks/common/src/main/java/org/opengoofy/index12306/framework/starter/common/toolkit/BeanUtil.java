@@ -26,8 +26,10 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.github.dozermapper.core.loader.api.TypeMappingOptions.mapEmptyString;
 import static com.github.dozermapper.core.loader.api.TypeMappingOptions.mapNull;
@@ -46,6 +48,13 @@ public class BeanUtil {
         BEAN_MAPPER_BUILDER = DozerBeanMapperBuilder.buildDefault();
     }
 
+    /**
+     * 忽略空属性的映射器按源类型以及目标类型缓存，避免每次拷贝重新构建 Dozer 映射器
+     */
+    private static final Map<String, Mapper> IGNORE_NULL_AND_BLANK_MAPPER_CACHE = new ConcurrentHashMap<>();
+
+    private static final Map<String, Mapper> IGNORE_NULL_MAPPER_CACHE = new ConcurrentHashMap<>();
+
     /**
      * 属性复制
      *
@@ -145,14 +154,14 @@ public class BeanUtil {
      * @param target 指向源
      */
     public static void convertIgnoreNullAndBlank(Object source, Object target) {
-        DozerBeanMapperBuilder dozerBeanMapperBuilder = DozerBeanMapperBuilder.create();
-        Mapper mapper = dozerBeanMapperBuilder.withMappingBuilders(new BeanMappingBuilder() {
-
-            @Override
-            protected void configure() {
-                mapping(source.getClass(), target.getClass(), mapNull(false), mapEmptyString(false));
-            }
-        }).build();
+        Mapper mapper = IGNORE_NULL_AND_BLANK_MAPPER_CACHE.computeIfAbsent(buildMapperCacheKey(source, target), key -> DozerBeanMapperBuilder.create()
+                .withMappingBuilders(new BeanMappingBuilder() {
+
+                    @Override
+                    protected void configure() {
+                        mapping(source.getClass(), target.getClass(), mapNull(false), mapEmptyString(false));
+                    }
+                }).build());
         mapper.map(source, target);
     }
 
@@ -163,14 +172,18 @@ public class BeanUtil {
      * @param target 指向源
      */
     public static void convertIgnoreNull(Object source, Object target) {
-        DozerBeanMapperBuilder dozerBeanMapperBuilder = DozerBeanMapperBuilder.create();
-        Mapper mapper = dozerBeanMapperBuilder.withMappingBuilders(new BeanMappingBuilder() {
-
-            @Override
-            protected void configure() {
-                mapping(source.getClass(), target.getClass(), mapNull(false));
-            }
-        }).build();
+        Mapper mapper = IGNORE_NULL_MAPPER_CACHE.computeIfAbsent(buildMapperCacheKey(source, target), key -> DozerBeanMapperBuilder.create()
+                .withMappingBuilders(new BeanMappingBuilder() {
+
+                    @Override
+                    protected void configure() {
+                        mapping(source.getClass(), target.getClass(), mapNull(false));
+                    }
+                }).build());
         mapper.map(source, target);
     }
+
+    private static String buildMapperCacheKey(Object source, Object target) {
+        return source.getClass().getName() + "->" + target.getClass().getName();
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.database.algorithm.sharding;
+
+import cn.hutool.core.util.HashUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring with virtual nodes.
+ *
+ * <p>Virtual node positions of a shard only depend on the shard index, so growing the sharding count
+ * only moves the keys that land on the new shards' virtual nodes.</p>
+ */
+public final class ConsistentHashShardingRing {
+
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashShardingRing(final int shardingCount, final int virtualNodeCount) {
+        for (int shard = 0; shard < shardingCount; shard++) {
+            for (int virtualNode = 0; virtualNode < virtualNodeCount; virtualNode++) {
+                ring.putIfAbsent(hash("SHARD-" + shard + "-VN-" + virtualNode), shard);
+            }
+        }
+    }
+
+    /**
+     * Route sharding value to shard index.
+     *
+     * @param shardingValue sharding value
+     * @return shard index in {@code [0, sharding-count)}
+     */
+    public int route(final Object shardingValue) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(hash(String.valueOf(shardingValue)));
+        return (null != entry ? entry : ring.firstEntry()).getValue();
+    }
+
+    private static long hash(final String key) {
+        return HashUtil.murmur64(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.framework.starter.database.algorithm.sharding;
+
+import org.apache.shardingsphere.infra.util.exception.ShardingSpherePreconditions;
+import org.apache.shardingsphere.sharding.algorithm.sharding.ShardingAutoTableAlgorithmUtil;
+import org.apache.shardingsphere.sharding.api.sharding.standard.PreciseShardingValue;
+import org.apache.shardingsphere.sharding.api.sharding.standard.RangeShardingValue;
+import org.apache.shardingsphere.sharding.api.sharding.standard.StandardShardingAlgorithm;
+import org.apache.shardingsphere.sharding.exception.algorithm.sharding.ShardingAlgorithmInitializationException;
+
+import java.util.Collection;
+import java.util.Properties;
+
+/**
+ * Custom consistent hash sharding algorithm.
+ *
+ * <p>Alternative to {@link CustomDbHashModShardingAlgorithm}. Configured with {@code table-sharding-count} it routes
+ * to the database holding the shard, otherwise it routes to the table with the shard index.</p>
+ */
+public final class CustomConsistentHashShardingAlgorithm implements StandardShardingAlgorithm<Comparable<?>> {
+
+    private static final String SHARDING_COUNT_KEY = "sharding-count";
+    private static final String TABLE_SHARDING_COUNT_KEY = "table-sharding-count";
+    private static final String VIRTUAL_NODE_COUNT_KEY = "virtual-node-count";
+    private static final int DEFAULT_VIRTUAL_NODE_COUNT = 160;
+
+    private int tableShardingCount;
+    private ConsistentHashShardingRing shardingRing;
+
+    @Override
+    public void init(final Properties props) {
+        tableShardingCount = Integer.parseInt(props.getProperty(TABLE_SHARDING_COUNT_KEY, "0"));
+        shardingRing = new ConsistentHashShardingRing(getShardingCount(props), getVirtualNodeCount(props));
+    }
+
+    @Override
+    public String doSharding(final Collection<String> availableTargetNames, final PreciseShardingValue<Comparable<?>> shardingValue) {
+        int shard = shardingRing.route(shardingValue.getValue());
+        String suffix = String.valueOf(tableShardingCount > 0 ? shard / tableShardingCount : shard);
+        return ShardingAutoTableAlgorithmUtil.findMatchedTargetName(availableTargetNames, suffix, shardingValue.getDataNodeInfo()).orElse(null);
+    }
+
+    @Override
+    public Collection<String> doSharding(final Collection<String> availableTargetNames, final RangeShardingValue<Comparable<?>> shardingValue) {
+        return availableTargetNames;
+    }
+
+    private int getShardingCount(final Properties props) {
+        ShardingSpherePreconditions.checkState(props.containsKey(SHARDING_COUNT_KEY), () -> new ShardingAlgorithmInitializationException(getType(), "Sharding count cannot be null."));
+        return Integer.parseInt(props.getProperty(SHARDING_COUNT_KEY));
+    }
+
+    private int getVirtualNodeCount(final Properties props) {
+        int virtualNodeCount = Integer.parseInt(props.getProperty(VIRTUAL_NODE_COUNT_KEY, String.valueOf(DEFAULT_VIRTUAL_NODE_COUNT)));
+        ShardingSpherePreconditions.checkState(virtualNodeCount > 0, () -> new ShardingAlgorithmInitializationException(getType(), "Virtual node count must be positive."));
+        return virtualNodeCount;
+    }
+
+    @Override
+    public String getType() {
+        return "CLASS_BASED";
+    }
+}
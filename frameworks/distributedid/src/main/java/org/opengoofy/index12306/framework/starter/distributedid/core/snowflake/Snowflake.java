@@ -26,6 +26,7 @@ import org.opengoofy.index12306.framework.starter.distributedid.core.IdGenerator
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Twitter的Snowflake 算法<br>
@@ -45,6 +46,9 @@ import java.util.Date;
  * <p>
  * 并且可以通过生成的id反推出生成时间,datacenterId和workerId
  * <p>
+ * 单毫秒内序号耗尽时借用后续毫秒，已发出ID的时间戳最多领先当前时钟 {@link #MAX_BORROW_MILLIS} 毫秒（且小于允许回拨毫秒数），超出后自旋等待时钟前进。
+ * 借用的领先量不会占满回拨容忍窗口，进程重启耗时也远大于该上限，重启后不会重复发出已借用的时间戳
+ * <p>
  * 参考：http://www.cnblogs.com/relucent/p/4955340.html<br>
  * 关于长度是18还是19的问题见：https://blog.csdn.net/unifirst/article/details/80408050
  *
@@ -65,6 +69,11 @@ public class Snowflake implements Serializable, IdGenerator {
      */
     private static long DEFAULT_TIME_OFFSET = 2000L;
 
+    /**
+     * 序号耗尽时最多可领先当前时钟借用的毫秒数
+     */
+    private static final long MAX_BORROW_MILLIS = 5L;
+
     private static final long WORKER_ID_BITS = 5L;
 
     // 最大支持机器节点数0~31，一共32个
@@ -117,11 +126,10 @@ public class Snowflake implements Serializable, IdGenerator {
     private final long randomSequenceLimit;
 
     /**
-     * 自增序号，当高频模式下时，同一毫秒内生成N个ID，则这个序号在同一毫秒下，自增以避免ID重复。
+     * 上次使用的时间戳与自增序号，高位为时间戳，低 {@link #SEQUENCE_BITS} 位为序号，通过 CAS 整体推进。<br>
+     * 当高频模式下时，同一毫秒内生成N个ID，则这个序号在同一毫秒下，自增以避免ID重复。
      */
-    private long sequence = 0L;
-
-    private long lastTimestamp = -1L;
+    private final AtomicLong state = new AtomicLong(-1L << SEQUENCE_BITS);
 
     /**
      * 构造，使用自动生成的工作节点ID和数据中心ID
@@ -230,33 +238,38 @@ public class Snowflake implements Serializable, IdGenerator {
      *
      * @return ID
      */
-    public synchronized long nextId() {
-        long timestamp = genTime();
-        if (timestamp < this.lastTimestamp) {
-            if (this.lastTimestamp - timestamp < timeOffset) {
+    public long nextId() {
+        for (; ; ) {
+            final long current = state.get();
+            final long lastTimestamp = current >> SEQUENCE_BITS;
+            final long now = genTime();
+            long timestamp;
+            long sequence;
+            if (now > lastTimestamp) {
+                // issue#I51EJY
+                sequence = randomSequenceLimit > 1 ? RandomUtil.randomLong(randomSequenceLimit) : 0L;
+                timestamp = now;
+            } else {
+                if (now < lastTimestamp && lastTimestamp - now >= timeOffset) {
+                    // 如果服务器时间有问题(时钟后退) 报错。
+                    throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - now));
+                }
                 // 容忍指定的回拨，避免NTP校时造成的异常
                 timestamp = lastTimestamp;
-            } else {
-                // 如果服务器时间有问题(时钟后退) 报错。
-                throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+                sequence = ((current & SEQUENCE_MASK) + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    // 序号耗尽时借用下一毫秒，领先当前时钟超过借用上限或回拨容忍窗口则等待时钟前进
+                    timestamp = lastTimestamp + 1;
+                    if (timestamp - now > MAX_BORROW_MILLIS || timestamp - now >= timeOffset) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                }
             }
-        }
-        if (timestamp == this.lastTimestamp) {
-            final long sequence = (this.sequence + 1) & SEQUENCE_MASK;
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
-            }
-            this.sequence = sequence;
-        } else {
-            // issue#I51EJY
-            if (randomSequenceLimit > 1) {
-                sequence = RandomUtil.randomLong(randomSequenceLimit);
-            } else {
-                sequence = 0L;
+            if (state.compareAndSet(current, (timestamp << SEQUENCE_BITS) | sequence)) {
+                return ((timestamp - twepoch) << TIMESTAMP_LEFT_SHIFT) | (dataCenterId << DATA_CENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT) | sequence;
             }
         }
-        lastTimestamp = timestamp;
-        return ((timestamp - twepoch) << TIMESTAMP_LEFT_SHIFT) | (dataCenterId << DATA_CENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT) | sequence;
     }
 
     /**
@@ -270,25 +283,6 @@ public class Snowflake implements Serializable, IdGenerator {
 
     // ------------------------------------------------------------------------------------------------------------------------------------ Private method start
 
-    /**
-     * 循环等待下一个时间
-     *
-     * @param lastTimestamp 上次记录的时间
-     * @return 下一个时间
-     */
-    private long tilNextMillis(long lastTimestamp) {
-        long timestamp = genTime();
-        // 循环直到操作系统时间戳变化
-        while (timestamp == lastTimestamp) {
-            timestamp = genTime();
-        }
-        if (timestamp < lastTimestamp) {
-            // 如果发现新的时间戳比上次记录的时间戳数值小，说明操作系统时间发生了倒退，报错
-            throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
-        }
-        return timestamp;
-    }
-
     /**
      * 生成时间戳
      *
@@ -45,6 +45,21 @@ CREATE TABLE `t_seat`
     KEY               `idx_train_id` (`train_id`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=1683022080920494081 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='座位表';
 
+CREATE TABLE `t_seat_segment`
+(
+    `id`              bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `train_id`        bigint(20) DEFAULT NULL COMMENT '列车ID',
+    `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '车厢号',
+    `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '座位号',
+    `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
+    `segment_status`  bigint(20) unsigned NOT NULL DEFAULT '0' COMMENT '区段占用位图',
+    `create_time`     datetime                               DEFAULT NULL COMMENT '创建时间',
+    `update_time`     datetime                               DEFAULT NULL COMMENT '修改时间',
+    `del_flag`        tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY        `uk_train_carriage_seat` (`train_id`, `carriage_number`, `seat_number`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='座位区段位图表';
+
 CREATE TABLE `t_station`
 (
     `id`          bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT 'ID',
@@ -575,6 +590,7 @@ CREATE TABLE `t_order_item_0`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -600,6 +616,7 @@ CREATE TABLE `t_order_item_1`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -625,6 +642,7 @@ CREATE TABLE `t_order_item_10`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -650,6 +668,7 @@ CREATE TABLE `t_order_item_11`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -675,6 +694,7 @@ CREATE TABLE `t_order_item_12`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -700,6 +720,7 @@ CREATE TABLE `t_order_item_13`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -725,6 +746,7 @@ CREATE TABLE `t_order_item_14`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -750,6 +772,7 @@ CREATE TABLE `t_order_item_15`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -775,6 +798,7 @@ CREATE TABLE `t_order_item_2`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -800,6 +824,7 @@ CREATE TABLE `t_order_item_3`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -825,6 +850,7 @@ CREATE TABLE `t_order_item_4`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -850,6 +876,7 @@ CREATE TABLE `t_order_item_5`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -875,6 +902,7 @@ CREATE TABLE `t_order_item_6`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -900,6 +928,7 @@ CREATE TABLE `t_order_item_7`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -925,6 +954,7 @@ CREATE TABLE `t_order_item_8`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -950,6 +980,7 @@ CREATE TABLE `t_order_item_9`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1068,6 +1099,21 @@ CREATE TABLE `t_order_item_passenger_15`
     PRIMARY KEY (`id`),
     KEY           `idx_id_card` (`id_card`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人订单关系表';
+CREATE TABLE `t_order_delay_close_outbox`
+(
+    `id`              bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `order_sn`        varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '订单号',
+    `user_id`         bigint(20) DEFAULT NULL COMMENT '用户ID',
+    `payload`         text COLLATE utf8mb4_unicode_ci        DEFAULT NULL COMMENT '延迟关闭订单事件',
+    `retry_count`     int(11) DEFAULT NULL COMMENT '重试次数',
+    `next_retry_time` datetime                               DEFAULT NULL COMMENT '下次重试时间',
+    `create_time`     datetime                               DEFAULT NULL COMMENT '创建时间',
+    `update_time`     datetime                               DEFAULT NULL COMMENT '修改时间',
+    `del_flag`        tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY               `idx_order_sn` (`order_sn`) USING BTREE,
+    KEY               `idx_del_flag_next_retry_time` (`del_flag`, `next_retry_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='延迟关闭订单消息发件箱表';
 
 CREATE TABLE `t_order_item_passenger_2`
 (
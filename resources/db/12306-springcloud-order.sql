@@ -427,6 +427,7 @@ CREATE TABLE `t_order_item_0`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -452,6 +453,7 @@ CREATE TABLE `t_order_item_1`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -477,6 +479,7 @@ CREATE TABLE `t_order_item_10`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -502,6 +505,7 @@ CREATE TABLE `t_order_item_11`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -527,6 +531,7 @@ CREATE TABLE `t_order_item_12`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -552,6 +557,7 @@ CREATE TABLE `t_order_item_13`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -577,6 +583,7 @@ CREATE TABLE `t_order_item_14`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -602,6 +609,7 @@ CREATE TABLE `t_order_item_15`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -627,6 +635,7 @@ CREATE TABLE `t_order_item_2`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -652,6 +661,7 @@ CREATE TABLE `t_order_item_3`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -677,6 +687,7 @@ CREATE TABLE `t_order_item_4`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -702,6 +713,7 @@ CREATE TABLE `t_order_item_5`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -727,6 +739,7 @@ CREATE TABLE `t_order_item_6`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -752,6 +765,7 @@ CREATE TABLE `t_order_item_7`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -777,6 +791,7 @@ CREATE TABLE `t_order_item_8`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -802,6 +817,7 @@ CREATE TABLE `t_order_item_9`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1025,6 +1041,22 @@ CREATE TABLE `t_order_item_passenger_9`
     KEY           `idx_id_card` (`id_card`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人订单关系表';
 
+CREATE TABLE `t_order_delay_close_outbox`
+(
+    `id`              bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `order_sn`        varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '订单号',
+    `user_id`         bigint(20) DEFAULT NULL COMMENT '用户ID',
+    `payload`         text COLLATE utf8mb4_unicode_ci        DEFAULT NULL COMMENT '延迟关闭订单事件',
+    `retry_count`     int(11) DEFAULT NULL COMMENT '重试次数',
+    `next_retry_time` datetime                               DEFAULT NULL COMMENT '下次重试时间',
+    `create_time`     datetime                               DEFAULT NULL COMMENT '创建时间',
+    `update_time`     datetime                               DEFAULT NULL COMMENT '修改时间',
+    `del_flag`        tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY               `idx_order_sn` (`order_sn`) USING BTREE,
+    KEY               `idx_del_flag_next_retry_time` (`del_flag`, `next_retry_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='延迟关闭订单消息发件箱表';
+
 USE
 12306_order_1;
 
@@ -1063,6 +1095,7 @@ CREATE TABLE `t_order_item_16`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1124,6 +1157,7 @@ CREATE TABLE `t_order_item_17`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1185,6 +1219,7 @@ CREATE TABLE `t_order_item_18`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1246,6 +1281,7 @@ CREATE TABLE `t_order_item_19`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1307,6 +1343,7 @@ CREATE TABLE `t_order_item_20`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1368,6 +1405,7 @@ CREATE TABLE `t_order_item_21`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1429,6 +1467,7 @@ CREATE TABLE `t_order_item_22`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1490,6 +1529,7 @@ CREATE TABLE `t_order_item_23`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1551,6 +1591,7 @@ CREATE TABLE `t_order_item_24`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1612,6 +1653,7 @@ CREATE TABLE `t_order_item_25`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1673,6 +1715,7 @@ CREATE TABLE `t_order_item_26`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1734,6 +1777,7 @@ CREATE TABLE `t_order_item_27`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1795,6 +1839,7 @@ CREATE TABLE `t_order_item_28`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1856,6 +1901,7 @@ CREATE TABLE `t_order_item_29`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1917,6 +1963,7 @@ CREATE TABLE `t_order_item_30`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -1978,6 +2025,7 @@ CREATE TABLE `t_order_item_31`
     `carriage_number` varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '车厢号',
     `seat_type`       int(3) DEFAULT NULL COMMENT '座位类型',
     `seat_number`     varchar(64) COLLATE utf8mb4_unicode_ci  DEFAULT NULL COMMENT '座位号',
+    `passenger_id`    bigint(20) DEFAULT NULL COMMENT '乘车人ID',
     `real_name`       varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '真实姓名',
     `id_type`         int(3) DEFAULT NULL COMMENT '证件类型',
     `id_card`         varchar(256) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '证件号',
@@ -2004,3 +2052,18 @@ CREATE TABLE `t_order_item_passenger_31`
     PRIMARY KEY (`id`),
     KEY           `idx_id_card` (`id_card`) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='乘车人订单关系表';
+CREATE TABLE `t_order_delay_close_outbox`
+(
+    `id`              bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `order_sn`        varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '订单号',
+    `user_id`         bigint(20) DEFAULT NULL COMMENT '用户ID',
+    `payload`         text COLLATE utf8mb4_unicode_ci        DEFAULT NULL COMMENT '延迟关闭订单事件',
+    `retry_count`     int(11) DEFAULT NULL COMMENT '重试次数',
+    `next_retry_time` datetime                               DEFAULT NULL COMMENT '下次重试时间',
+    `create_time`     datetime                               DEFAULT NULL COMMENT '创建时间',
+    `update_time`     datetime                               DEFAULT NULL COMMENT '修改时间',
+    `del_flag`        tinyint(1) DEFAULT NULL COMMENT '删除标识',
+    PRIMARY KEY (`id`),
+    KEY               `idx_order_sn` (`order_sn`) USING BTREE,
+    KEY               `idx_del_flag_next_retry_time` (`del_flag`, `next_retry_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='延迟关闭订单消息发件箱表';
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.config;
+
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.RevokedTokenMirror;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import static org.opengoofy.index12306.framework.starter.bases.constant.UserConstant.REVOKED_TOKEN_CHANNEL;
+
+/**
+ * 已吊销 Token 广播订阅配置
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Configuration
+public class RevokedTokenConfiguration {
+
+    @Bean
+    public RedisMessageListenerContainer revokedTokenListenerContainer(RedisConnectionFactory redisConnectionFactory, RevokedTokenMirror revokedTokenMirror) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(revokedTokenMirror, new ChannelTopic(REVOKED_TOKEN_CHANNEL));
+        return container;
+    }
+}
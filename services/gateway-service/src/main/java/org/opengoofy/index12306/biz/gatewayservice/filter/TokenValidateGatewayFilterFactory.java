@@ -17,10 +17,11 @@
 
 package org.opengoofy.index12306.biz.gatewayservice.filter;
 
-import com.alibaba.nacos.client.naming.utils.CollectionUtils;
 import org.opengoofy.index12306.biz.gatewayservice.config.Config;
-import org.opengoofy.index12306.biz.gatewayservice.toolkit.JWTUtil;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.PathPrefixMatcher;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.RevokedTokenMirror;
 import org.opengoofy.index12306.biz.gatewayservice.toolkit.UserInfoDTO;
+import org.opengoofy.index12306.biz.gatewayservice.toolkit.VerifiedTokenCache;
 import org.opengoofy.index12306.framework.starter.bases.constant.UserConstant;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
@@ -31,7 +32,6 @@ import org.springframework.stereotype.Component;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -42,8 +42,11 @@ import java.util.Objects;
 @Component
 public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFactory<Config> {
 
-    public TokenValidateGatewayFilterFactory() {
+    private final RevokedTokenMirror revokedTokenMirror;
+
+    public TokenValidateGatewayFilterFactory(RevokedTokenMirror revokedTokenMirror) {
         super(Config.class);
+        this.revokedTokenMirror = revokedTokenMirror;
     }
 
     /**
@@ -51,15 +54,23 @@ public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFact
      */
     public static final String DELETION_PATH = "/api/user-service/deletion";
 
+    /**
+     * 已验签 Token 缓存最大条目数
+     */
+    private static final long VERIFIED_TOKEN_CACHE_MAXIMUM_SIZE = 100000L;
+
+    private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(VERIFIED_TOKEN_CACHE_MAXIMUM_SIZE);
+
     @Override
     public GatewayFilter apply(Config config) {
+        PathPrefixMatcher blackPathPreMatcher = new PathPrefixMatcher(config.getBlackPathPre());
         return (exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             String requestPath = request.getPath().toString();
-            if (isPathInBlackPreList(requestPath, config.getBlackPathPre())) {
+            if (blackPathPreMatcher.matches(requestPath)) {
                 String token = request.getHeaders().getFirst("Authorization");
-                // TODO 需要验证 Token 是否有效，有可能用户注销了账户，但是 Token 有效期还未过
-                UserInfoDTO userInfo = JWTUtil.parseJwtToken(token);
+                // 用户退出登录或注销账户后 Token 有效期可能还未过，通过本地吊销镜像拦截
+                UserInfoDTO userInfo = revokedTokenMirror.isRevoked(token) ? null : verifiedTokenCache.getUserInfo(token);
                 if (!validateToken(userInfo)) {
                     ServerHttpResponse response = exchange.getResponse();
                     response.setStatusCode(HttpStatus.UNAUTHORIZED);
@@ -80,13 +91,6 @@ public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFact
         };
     }
 
-    private boolean isPathInBlackPreList(String requestPath, List<String> blackPathPre) {
-        if (CollectionUtils.isEmpty(blackPathPre)) {
-            return false;
-        }
-        return blackPathPre.stream().anyMatch(requestPath::startsWith);
-    }
-
     private boolean validateToken(UserInfoDTO userInfo) {
         return userInfo != null;
     }
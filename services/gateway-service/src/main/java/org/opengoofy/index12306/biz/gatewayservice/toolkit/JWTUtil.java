@@ -41,7 +41,7 @@ import static org.opengoofy.index12306.framework.starter.bases.constant.UserCons
 @Slf4j
 public final class JWTUtil {
 
-    private static final long EXPIRATION = 86400L;
+    public static final long EXPIRATION = 86400L;
     public static final String TOKEN_PREFIX = "Bearer ";
     public static final String ISS = "index12306";
     public static final String SECRET = "SecretKey039245678901232039487623456783092349288901402967890140939827";
@@ -74,14 +74,24 @@ public final class JWTUtil {
      * @return 用户信息
      */
     public static UserInfoDTO parseJwtToken(String jwtToken) {
+        Claims claims = parseJwtClaims(jwtToken);
+        return claims != null ? JSON.parseObject(claims.getSubject(), UserInfoDTO.class) : null;
+    }
+
+    /**
+     * 校验签名并解析用户 Token 声明
+     *
+     * @param jwtToken 用户访问 Token
+     * @return 未过期的 Token 声明，校验失败返回 null
+     */
+    public static Claims parseJwtClaims(String jwtToken) {
         if (StringUtils.hasText(jwtToken)) {
             String actualJwtToken = jwtToken.replace(TOKEN_PREFIX, "");
             try {
                 Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(actualJwtToken).getBody();
                 Date expiration = claims.getExpiration();
                 if (expiration.after(new Date())) {
-                    String subject = claims.getSubject();
-                    return JSON.parseObject(subject, UserInfoDTO.class);
+                    return claims;
                 }
             } catch (ExpiredJwtException ignored) {
             } catch (Exception ex) {
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.toolkit;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 路径前缀匹配器
+ * <p>
+ * 在加载路由配置时将前缀列表编译为字典树，匹配耗时只与请求路径长度相关，与配置的前缀数量无关
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+public final class PathPrefixMatcher {
+
+    private final Node root = new Node();
+
+    private final boolean empty;
+
+    public PathPrefixMatcher(Collection<String> prefixes) {
+        boolean hasPrefix = false;
+        if (prefixes != null) {
+            for (String prefix : prefixes) {
+                if (prefix == null) {
+                    continue;
+                }
+                Node node = root;
+                for (int i = 0; i < prefix.length(); i++) {
+                    node = node.children.computeIfAbsent(prefix.charAt(i), key -> new Node());
+                }
+                node.terminal = true;
+                hasPrefix = true;
+            }
+        }
+        this.empty = !hasPrefix;
+    }
+
+    /**
+     * 判断路径是否以任一配置前缀开头
+     *
+     * @param path 请求路径
+     * @return 是否匹配
+     */
+    public boolean matches(String path) {
+        if (empty) {
+            return false;
+        }
+        Node node = root;
+        for (int i = 0; ; i++) {
+            if (node.terminal) {
+                return true;
+            }
+            if (i == path.length()) {
+                return false;
+            }
+            node = node.children.get(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+
+        private boolean terminal;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.toolkit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.opengoofy.index12306.framework.starter.bases.constant.UserConstant.REVOKED_TOKEN_CHANNEL;
+import static org.opengoofy.index12306.framework.starter.bases.constant.UserConstant.REVOKED_TOKEN_KEY;
+
+/**
+ * 已吊销 Token 本地镜像
+ * <p>
+ * 用户服务退出登录或注销时将 Token 写入 Redis 有序集合并通过 {@link org.opengoofy.index12306.framework.starter.bases.constant.UserConstant#REVOKED_TOKEN_CHANNEL} 广播，
+ * 网关订阅广播实时写入本地，并定时按 Score 增量回补订阅断开期间漏掉的数据，请求链路上只做内存判断
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedTokenMirror implements MessageListener, InitializingBean, DisposableBean {
+
+    /**
+     * 定时回补间隔
+     */
+    private static final long RESYNC_PERIOD_SECONDS = 30L;
+
+    /**
+     * 回补时向前多取的时间窗口，覆盖多个用户服务节点写入时间戳的先后差异
+     */
+    private static final long RESYNC_OVERLAP_MILLIS = 60000L;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 已吊销 Token -> 最晚过期时间戳，条目在 Token 过期后自动清除，不设容量上限以免淘汰仍有效的吊销记录
+     */
+    private final Cache<String, Long> revokedTokens = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Long>() {
+
+                @Override
+                public long expireAfterCreate(String key, Long value, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(value - System.currentTimeMillis(), 0L));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Long value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Long value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    private volatile long syncedMaxScore;
+
+    private ScheduledExecutorService resyncExecutor;
+
+    /**
+     * 判断 Token 是否已被吊销
+     *
+     * @param token 用户访问 Token
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(String token) {
+        return token != null && revokedTokens.getIfPresent(token) != null;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String token = new String(message.getBody(), StandardCharsets.UTF_8);
+        revokedTokens.put(token, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(JWTUtil.EXPIRATION));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        syncedMaxScore = System.currentTimeMillis();
+        resync();
+        resyncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revoked-token-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        resyncExecutor.scheduleWithFixedDelay(this::resync, RESYNC_PERIOD_SECONDS, RESYNC_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (resyncExecutor != null) {
+            resyncExecutor.shutdownNow();
+        }
+    }
+
+    private void resync() {
+        try {
+            long fromScore = Math.max(syncedMaxScore - RESYNC_OVERLAP_MILLIS, System.currentTimeMillis());
+            Set<ZSetOperations.TypedTuple<String>> revokedTuples = stringRedisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(REVOKED_TOKEN_KEY, fromScore, Double.POSITIVE_INFINITY);
+            if (revokedTuples == null) {
+                return;
+            }
+            long maxScore = syncedMaxScore;
+            for (ZSetOperations.TypedTuple<String> each : revokedTuples) {
+                long expireAt = each.getScore().longValue();
+                revokedTokens.put(each.getValue(), expireAt);
+                maxScore = Math.max(maxScore, expireAt);
+            }
+            syncedMaxScore = maxScore;
+        } catch (Exception ex) {
+            log.error("同步已吊销 Token 失败", ex);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.gatewayservice.toolkit;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签 Token 本地缓存
+ * <p>
+ * 同一 Token 在有效期内重复请求时直接复用解析结果，跳过 HS512 验签与 JSON 解析；条目在 Token 过期时刻失效，校验失败的 Token 不缓存
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+public final class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> verifiedTokenCache;
+
+    public VerifiedTokenCache(long maximumSize) {
+        this.verifiedTokenCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(value.expiration - System.currentTimeMillis(), 0L));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 获取 Token 对应用户信息，未命中时验签并写入缓存
+     *
+     * @param token 用户访问 Token
+     * @return 用户信息，Token 无效或已过期返回 null
+     */
+    public UserInfoDTO getUserInfo(String token) {
+        if (token == null) {
+            return null;
+        }
+        VerifiedToken verifiedToken = verifiedTokenCache.getIfPresent(token);
+        if (verifiedToken != null && verifiedToken.expiration > System.currentTimeMillis()) {
+            return verifiedToken.userInfo;
+        }
+        Claims claims = JWTUtil.parseJwtClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        UserInfoDTO userInfo = JSON.parseObject(claims.getSubject(), UserInfoDTO.class);
+        if (userInfo != null) {
+            verifiedTokenCache.put(token, new VerifiedToken(userInfo, claims.getExpiration().getTime()));
+        }
+        return userInfo;
+    }
+
+    /**
+     * 移除 Token 缓存
+     *
+     * @param token 用户访问 Token
+     */
+    public void invalidate(String token) {
+        verifiedTokenCache.invalidate(token);
+    }
+
+    @AllArgsConstructor
+    private static final class VerifiedToken {
+
+        private final UserInfoDTO userInfo;
+
+        private final long expiration;
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.shardingsphere.infra.util.exception.ShardingSpherePrecondition
 import org.apache.shardingsphere.sharding.api.sharding.complex.ComplexKeysShardingAlgorithm;
 import org.apache.shardingsphere.sharding.api.sharding.complex.ComplexKeysShardingValue;
 import org.apache.shardingsphere.sharding.exception.algorithm.sharding.ShardingAlgorithmInitializationException;
+import org.opengoofy.index12306.framework.starter.database.algorithm.sharding.ConsistentHashShardingRing;
 
 import java.util.Collection;
 import java.util.LinkedHashSet;
@@ -31,6 +32,8 @@ import java.util.Properties;
 
 /**
  * 订单数据库复合分片算法配置
+ * <p>
+ * 配置 virtual-node-count 时与 {@link OrderCommonTableComplexAlgorithm} 使用同一一致性哈希环，按分片所在库路由
  *
  * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
  */
@@ -42,8 +45,11 @@ public class OrderCommonDataBaseComplexAlgorithm implements ComplexKeysShardingA
     private int shardingCount;
     private int tableShardingCount;
 
+    private ConsistentHashShardingRing shardingRing;
+
     private static final String SHARDING_COUNT_KEY = "sharding-count";
     private static final String TABLE_SHARDING_COUNT_KEY = "table-sharding-count";
+    private static final String VIRTUAL_NODE_COUNT_KEY = "virtual-node-count";
 
     @Override
     public Collection<String> doSharding(Collection availableTargetNames, ComplexKeysShardingValue shardingValue) {
@@ -53,27 +59,15 @@ public class OrderCommonDataBaseComplexAlgorithm implements ComplexKeysShardingA
             String userId = "user_id";
             Collection<Comparable<Long>> customerUserIdCollection = columnNameAndShardingValuesMap.get(userId);
             if (CollUtil.isNotEmpty(customerUserIdCollection)) {
-                String dbSuffix;
-                Comparable<?> comparable = customerUserIdCollection.stream().findFirst().get();
-                if (comparable instanceof String) {
-                    String actualUserId = comparable.toString();
-                    dbSuffix = String.valueOf(hashShardingValue(actualUserId.substring(Math.max(actualUserId.length() - 6, 0))) % shardingCount / tableShardingCount);
-                } else {
-                    dbSuffix = String.valueOf(hashShardingValue((Long) comparable % 1000000) % shardingCount / tableShardingCount);
+                for (Comparable<?> comparable : customerUserIdCollection) {
+                    result.add("ds_" + shardingIndex(comparable) / tableShardingCount);
                 }
-                result.add("ds_" + dbSuffix);
             } else {
                 String orderSn = "order_sn";
-                String dbSuffix;
                 Collection<Comparable<Long>> orderSnCollection = columnNameAndShardingValuesMap.get(orderSn);
-                Comparable<?> comparable = orderSnCollection.stream().findFirst().get();
-                if (comparable instanceof String) {
-                    String actualOrderSn = comparable.toString();
-                    dbSuffix = String.valueOf(hashShardingValue(actualOrderSn.substring(Math.max(actualOrderSn.length() - 6, 0))) % shardingCount / tableShardingCount);
-                } else {
-                    dbSuffix = String.valueOf(hashShardingValue((Long) comparable % 1000000) % shardingCount / tableShardingCount);
+                for (Comparable<?> comparable : orderSnCollection) {
+                    result.add("ds_" + shardingIndex(comparable) / tableShardingCount);
                 }
-                result.add("ds_" + dbSuffix);
             }
         }
         return result;
@@ -84,6 +78,9 @@ public class OrderCommonDataBaseComplexAlgorithm implements ComplexKeysShardingA
         this.props = props;
         shardingCount = getShardingCount(props);
         tableShardingCount = getTableShardingCount(props);
+        if (props.containsKey(VIRTUAL_NODE_COUNT_KEY)) {
+            shardingRing = new ConsistentHashShardingRing(shardingCount, getVirtualNodeCount(props));
+        }
     }
 
     private int getShardingCount(final Properties props) {
@@ -96,6 +93,22 @@ public class OrderCommonDataBaseComplexAlgorithm implements ComplexKeysShardingA
         return Integer.parseInt(props.getProperty(TABLE_SHARDING_COUNT_KEY));
     }
 
+    private int getVirtualNodeCount(final Properties props) {
+        int virtualNodeCount = Integer.parseInt(props.getProperty(VIRTUAL_NODE_COUNT_KEY));
+        ShardingSpherePreconditions.checkState(virtualNodeCount > 0, () -> new ShardingAlgorithmInitializationException(getType(), "Virtual node count must be positive."));
+        return virtualNodeCount;
+    }
+
+    private long shardingIndex(final Comparable<?> comparable) {
+        if (comparable instanceof String) {
+            String actualValue = comparable.toString();
+            String gene = actualValue.substring(Math.max(actualValue.length() - 6, 0));
+            return shardingRing != null ? shardingRing.route(Long.parseLong(gene)) : hashShardingValue(gene) % shardingCount;
+        }
+        long gene = (Long) comparable % 1000000;
+        return shardingRing != null ? shardingRing.route(gene) : hashShardingValue(gene) % shardingCount;
+    }
+
     private long hashShardingValue(final Comparable<?> shardingValue) {
         return Math.abs((long) shardingValue.hashCode());
     }
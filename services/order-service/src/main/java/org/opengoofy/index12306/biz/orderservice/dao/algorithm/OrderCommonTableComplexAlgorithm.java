@@ -20,8 +20,11 @@ package org.opengoofy.index12306.biz.orderservice.dao.algorithm;
 import cn.hutool.core.collection.CollUtil;
 import com.google.common.base.Preconditions;
 import lombok.Getter;
+import org.apache.shardingsphere.infra.util.exception.ShardingSpherePreconditions;
 import org.apache.shardingsphere.sharding.api.sharding.complex.ComplexKeysShardingAlgorithm;
 import org.apache.shardingsphere.sharding.api.sharding.complex.ComplexKeysShardingValue;
+import org.apache.shardingsphere.sharding.exception.algorithm.sharding.ShardingAlgorithmInitializationException;
+import org.opengoofy.index12306.framework.starter.database.algorithm.sharding.ConsistentHashShardingRing;
 
 import java.util.Collection;
 import java.util.LinkedHashSet;
@@ -30,6 +33,8 @@ import java.util.Properties;
 
 /**
  * 订单表相关复合分片算法配置
+ * <p>
+ * 配置 virtual-node-count 时按用户基因走虚拟节点一致性哈希，扩容分片只迁移落到新分片上的数据；未配置时保持哈希取模
  *
  * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
  */
@@ -40,7 +45,10 @@ public class OrderCommonTableComplexAlgorithm implements ComplexKeysShardingAlgo
 
     private int shardingCount;
 
+    private ConsistentHashShardingRing shardingRing;
+
     private static final String SHARDING_COUNT_KEY = "sharding-count";
+    private static final String VIRTUAL_NODE_COUNT_KEY = "virtual-node-count";
 
     @Override
     public Collection<String> doSharding(Collection availableTargetNames, ComplexKeysShardingValue shardingValue) {
@@ -50,24 +58,14 @@ public class OrderCommonTableComplexAlgorithm implements ComplexKeysShardingAlgo
             String userId = "user_id";
             Collection<Comparable<?>> customerUserIdCollection = columnNameAndShardingValuesMap.get(userId);
             if (CollUtil.isNotEmpty(customerUserIdCollection)) {
-                Comparable<?> comparable = customerUserIdCollection.stream().findFirst().get();
-                if (comparable instanceof String) {
-                    String actualUserId = comparable.toString();
-                    result.add(shardingValue.getLogicTableName() + "_" + hashShardingValue(actualUserId.substring(Math.max(actualUserId.length() - 6, 0))) % shardingCount);
-                } else {
-                    String dbSuffix = String.valueOf(hashShardingValue((Long) comparable % 1000000) % shardingCount);
-                    result.add(shardingValue.getLogicTableName() + "_" + dbSuffix);
+                for (Comparable<?> comparable : customerUserIdCollection) {
+                    result.add(shardingValue.getLogicTableName() + "_" + shardingIndex(comparable));
                 }
             } else {
                 String orderSn = "order_sn";
                 Collection<Comparable<?>> orderSnCollection = columnNameAndShardingValuesMap.get(orderSn);
-                Comparable<?> comparable = orderSnCollection.stream().findFirst().get();
-                if (comparable instanceof String) {
-                    String actualOrderSn = comparable.toString();
-                    result.add(shardingValue.getLogicTableName() + "_" + hashShardingValue(actualOrderSn.substring(Math.max(actualOrderSn.length() - 6, 0))) % shardingCount);
-                } else {
-                    String dbSuffix = String.valueOf(hashShardingValue((Long) comparable % 1000000) % shardingCount);
-                    result.add(shardingValue.getLogicTableName() + "_" + dbSuffix);
+                for (Comparable<?> comparable : orderSnCollection) {
+                    result.add(shardingValue.getLogicTableName() + "_" + shardingIndex(comparable));
                 }
             }
         }
@@ -78,6 +76,9 @@ public class OrderCommonTableComplexAlgorithm implements ComplexKeysShardingAlgo
     public void init(Properties props) {
         this.props = props;
         shardingCount = getShardingCount(props);
+        if (props.containsKey(VIRTUAL_NODE_COUNT_KEY)) {
+            shardingRing = new ConsistentHashShardingRing(shardingCount, getVirtualNodeCount(props));
+        }
     }
 
     private int getShardingCount(final Properties props) {
@@ -85,6 +86,22 @@ public class OrderCommonTableComplexAlgorithm implements ComplexKeysShardingAlgo
         return Integer.parseInt(props.getProperty(SHARDING_COUNT_KEY));
     }
 
+    private int getVirtualNodeCount(final Properties props) {
+        int virtualNodeCount = Integer.parseInt(props.getProperty(VIRTUAL_NODE_COUNT_KEY));
+        ShardingSpherePreconditions.checkState(virtualNodeCount > 0, () -> new ShardingAlgorithmInitializationException(getType(), "Virtual node count must be positive."));
+        return virtualNodeCount;
+    }
+
+    private long shardingIndex(final Comparable<?> comparable) {
+        if (comparable instanceof String) {
+            String actualValue = comparable.toString();
+            String gene = actualValue.substring(Math.max(actualValue.length() - 6, 0));
+            return shardingRing != null ? shardingRing.route(Long.parseLong(gene)) : hashShardingValue(gene) % shardingCount;
+        }
+        long gene = (Long) comparable % 1000000;
+        return shardingRing != null ? shardingRing.route(gene) : hashShardingValue(gene) % shardingCount;
+    }
+
     private long hashShardingValue(final Comparable<?> shardingValue) {
         return Math.abs((long) shardingValue.hashCode());
     }
@@ -76,6 +76,11 @@ public class OrderItemDO extends BaseDO {
      */
     private String seatNumber;
 
+    /**
+     * 乘车人 ID
+     */
+    private String passengerId;
+
     /**
      * 真实姓名
      */
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.orderservice.dao.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderDelayCloseOutboxDO;
+
+/**
+ * 延迟关闭订单消息发件箱持久层
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+public interface OrderDelayCloseOutboxMapper extends BaseMapper<OrderDelayCloseOutboxDO> {
+
+    /**
+     * 物理删除发件箱记录
+     *
+     * @param outboxDO 发件箱记录，需包含用户 ID、订单号以及 ID
+     * @return 删除记录数量
+     */
+    int deletePhysically(OrderDelayCloseOutboxDO outboxDO);
+}
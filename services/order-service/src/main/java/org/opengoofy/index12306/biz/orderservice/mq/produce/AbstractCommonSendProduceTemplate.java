@@ -21,6 +21,7 @@ import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSON;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
 import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.messaging.Message;
@@ -65,12 +66,8 @@ public abstract class AbstractCommonSendProduceTemplate<T> {
         BaseSendExtendDTO baseSendExtendDTO = buildBaseSendExtendParam(messageSendEvent);
         SendResult sendResult;
         try {
-            StringBuilder destinationBuilder = StrUtil.builder().append(baseSendExtendDTO.getTopic());
-            if (StrUtil.isNotBlank(baseSendExtendDTO.getTag())) {
-                destinationBuilder.append(":").append(baseSendExtendDTO.getTag());
-            }
             sendResult = rocketMQTemplate.syncSend(
-                    destinationBuilder.toString(),
+                    buildDestination(baseSendExtendDTO),
                     buildMessage(messageSendEvent, baseSendExtendDTO),
                     baseSendExtendDTO.getSentTimeout(),
                     Optional.ofNullable(baseSendExtendDTO.getDelayLevel()).orElse(0)
@@ -82,4 +79,47 @@ public abstract class AbstractCommonSendProduceTemplate<T> {
         }
         return sendResult;
     }
+
+    /**
+     * 消息事件通用异步发送，发送结果通过回调通知，调用线程无需等待 Broker 响应
+     *
+     * @param messageSendEvent 消息发送事件
+     * @param sendCallback     消息发送结果回调
+     */
+    public void asyncSendMessage(T messageSendEvent, SendCallback sendCallback) {
+        BaseSendExtendDTO baseSendExtendDTO = buildBaseSendExtendParam(messageSendEvent);
+        try {
+            rocketMQTemplate.asyncSend(
+                    buildDestination(baseSendExtendDTO),
+                    buildMessage(messageSendEvent, baseSendExtendDTO),
+                    new SendCallback() {
+
+                        @Override
+                        public void onSuccess(SendResult sendResult) {
+                            log.info("[{}] 消息异步发送结果：{}，消息ID：{}，消息Keys：{}", baseSendExtendDTO.getEventName(), sendResult.getSendStatus(), sendResult.getMsgId(), baseSendExtendDTO.getKeys());
+                            sendCallback.onSuccess(sendResult);
+                        }
+
+                        @Override
+                        public void onException(Throwable ex) {
+                            log.error("[{}] 消息异步发送失败，消息体：{}", baseSendExtendDTO.getEventName(), JSON.toJSONString(messageSendEvent), ex);
+                            sendCallback.onException(ex);
+                        }
+                    },
+                    baseSendExtendDTO.getSentTimeout(),
+                    Optional.ofNullable(baseSendExtendDTO.getDelayLevel()).orElse(0)
+            );
+        } catch (Throwable ex) {
+            log.error("[{}] 消息异步发送失败，消息体：{}", baseSendExtendDTO.getEventName(), JSON.toJSONString(messageSendEvent), ex);
+            sendCallback.onException(ex);
+        }
+    }
+
+    private String buildDestination(BaseSendExtendDTO baseSendExtendDTO) {
+        StringBuilder destinationBuilder = StrUtil.builder().append(baseSendExtendDTO.getTopic());
+        if (StrUtil.isNotBlank(baseSendExtendDTO.getTag())) {
+            destinationBuilder.append(":").append(baseSendExtendDTO.getTag());
+        }
+        return destinationBuilder.toString();
+    }
 }
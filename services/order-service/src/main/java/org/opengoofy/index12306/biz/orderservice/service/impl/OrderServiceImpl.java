@@ -17,6 +17,7 @@
 
 package org.opengoofy.index12306.biz.orderservice.service.impl;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.text.StrBuilder;
 import com.alibaba.fastjson2.JSON;
@@ -26,8 +27,6 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.rocketmq.client.producer.SendResult;
-import org.apache.rocketmq.client.producer.SendStatus;
 import org.opengoofy.index12306.biz.orderservice.common.enums.OrderCanalErrorCodeEnum;
 import org.opengoofy.index12306.biz.orderservice.common.enums.OrderItemStatusEnum;
 import org.opengoofy.index12306.biz.orderservice.common.enums.OrderStatusEnum;
@@ -47,13 +46,13 @@ import org.opengoofy.index12306.biz.orderservice.dto.resp.TicketOrderDetailSelfR
 import org.opengoofy.index12306.biz.orderservice.dto.resp.TicketOrderPassengerDetailRespDTO;
 import org.opengoofy.index12306.biz.orderservice.mq.event.DelayCloseOrderEvent;
 import org.opengoofy.index12306.biz.orderservice.mq.event.PayResultCallbackOrderEvent;
-import org.opengoofy.index12306.biz.orderservice.mq.produce.DelayCloseOrderSendProduce;
 import org.opengoofy.index12306.biz.orderservice.remote.UserRemoteService;
 import org.opengoofy.index12306.biz.orderservice.remote.dto.UserQueryActualRespDTO;
 import org.opengoofy.index12306.biz.orderservice.service.OrderItemService;
 import org.opengoofy.index12306.biz.orderservice.service.OrderPassengerRelationService;
 import org.opengoofy.index12306.biz.orderservice.service.OrderService;
 import org.opengoofy.index12306.biz.orderservice.service.orderid.OrderIdGeneratorManager;
+import org.opengoofy.index12306.biz.orderservice.service.outbox.DelayCloseOrderOutbox;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ClientException;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
@@ -67,8 +66,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * 订单服务接口层实现
@@ -85,7 +88,7 @@ public class OrderServiceImpl implements OrderService {
     private final OrderItemService orderItemService;
     private final OrderPassengerRelationService orderPassengerRelationService;
     private final RedissonClient redissonClient;
-    private final DelayCloseOrderSendProduce delayCloseOrderSendProduce;
+    private final DelayCloseOrderOutbox delayCloseOrderOutbox;
     private final UserRemoteService userRemoteService;
 
     @Override
@@ -108,11 +111,22 @@ public class OrderServiceImpl implements OrderService {
                 .in(OrderDO::getStatus, buildOrderStatusList(requestParam))
                 .orderByDesc(OrderDO::getOrderTime);
         IPage<OrderDO> orderPage = orderMapper.selectPage(PageUtil.convert(requestParam), queryWrapper);
+        // 当前页订单的子订单通过订单号 IN 一次查询，用户 ID 作为分片键保证路由到单一分片
+        List<String> orderSnList = orderPage.getRecords().stream()
+                .map(OrderDO::getOrderSn)
+                .toList();
+        Map<String, List<OrderItemDO>> orderItemMap = Collections.emptyMap();
+        if (CollUtil.isNotEmpty(orderSnList)) {
+            LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
+                    .eq(OrderItemDO::getUserId, requestParam.getUserId())
+                    .in(OrderItemDO::getOrderSn, orderSnList);
+            orderItemMap = orderItemMapper.selectList(orderItemQueryWrapper).stream()
+                    .collect(Collectors.groupingBy(OrderItemDO::getOrderSn));
+        }
+        Map<String, List<OrderItemDO>> actualOrderItemMap = orderItemMap;
         return PageUtil.convert(orderPage, each -> {
             TicketOrderDetailRespDTO result = BeanUtil.convert(each, TicketOrderDetailRespDTO.class);
-            LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
-                    .eq(OrderItemDO::getOrderSn, each.getOrderSn());
-            List<OrderItemDO> orderItemDOList = orderItemMapper.selectList(orderItemQueryWrapper);
+            List<OrderItemDO> orderItemDOList = actualOrderItemMap.getOrDefault(each.getOrderSn(), Collections.emptyList());
             result.setPassengerDetails(BeanUtil.convert(orderItemDOList, TicketOrderPassengerDetailRespDTO.class));
             return result;
         });
@@ -146,6 +160,7 @@ public class OrderServiceImpl implements OrderService {
                     .trainId(requestParam.getTrainId())
                     .seatNumber(each.getSeatNumber())
                     .carriageNumber(each.getCarriageNumber())
+                    .passengerId(each.getPassengerId())
                     .realName(each.getRealName())
                     .orderSn(orderSn)
                     .phone(each.getPhone())
@@ -167,24 +182,17 @@ public class OrderServiceImpl implements OrderService {
         });
         orderItemService.saveBatch(orderItemDOList);
         orderPassengerRelationService.saveBatch(orderPassengerRelationDOList);
-        try {
-            // 发送 RocketMQ 延时消息，指定时间后取消订单
-            DelayCloseOrderEvent delayCloseOrderEvent = DelayCloseOrderEvent.builder()
-                    .trainId(String.valueOf(requestParam.getTrainId()))
-                    .departure(requestParam.getDeparture())
-                    .arrival(requestParam.getArrival())
-                    .orderSn(orderSn)
-                    .trainPurchaseTicketResults(requestParam.getTicketOrderItems())
-                    .build();
-            // 创建订单并支付后延时关闭订单消息怎么办？详情查看：https://nageoffer.com/12306/question
-            SendResult sendResult = delayCloseOrderSendProduce.sendMessage(delayCloseOrderEvent);
-            if (!Objects.equals(sendResult.getSendStatus(), SendStatus.SEND_OK)) {
-                throw new ServiceException("投递延迟关闭订单消息队列失败");
-            }
-        } catch (Throwable ex) {
-            log.error("延迟关闭订单消息队列发送错误，请求参数：{}", JSON.toJSONString(requestParam), ex);
-            throw ex;
-        }
+        // 发送 RocketMQ 延时消息，指定时间后取消订单
+        DelayCloseOrderEvent delayCloseOrderEvent = DelayCloseOrderEvent.builder()
+                .trainId(String.valueOf(requestParam.getTrainId()))
+                .departure(requestParam.getDeparture())
+                .arrival(requestParam.getArrival())
+                .orderSn(orderSn)
+                .trainPurchaseTicketResults(requestParam.getTicketOrderItems())
+                .build();
+        // 创建订单并支付后延时关闭订单消息怎么办？详情查看：https://nageoffer.com/12306/question
+        // 消息与订单同事务写入发件箱，事务提交后异步投递，下单耗时不再受 Broker 响应影响，投递失败由发件箱重新投递
+        delayCloseOrderOutbox.saveAndSendAfterCommit(String.valueOf(requestParam.getUserId()), delayCloseOrderEvent);
         return orderSn;
     }
 
@@ -298,16 +306,25 @@ public class OrderServiceImpl implements OrderService {
                 .eq(OrderItemPassengerDO::getIdCard, userActualResp.getData().getIdCard())
                 .orderByDesc(OrderItemPassengerDO::getCreateTime);
         IPage<OrderItemPassengerDO> orderItemPassengerPage = orderPassengerRelationService.page(PageUtil.convert(requestParam), queryWrapper);
-        return PageUtil.convert(orderItemPassengerPage, each -> {
+        // 当前页订单以及本人子订单各通过订单号 IN 一次查询，订单号携带用户基因可直接路由到对应分片
+        List<String> orderSnList = orderItemPassengerPage.getRecords().stream()
+                .map(OrderItemPassengerDO::getOrderSn)
+                .distinct()
+                .toList();
+        Map<String, OrderDO> orderMap = new HashMap<>();
+        Map<String, OrderItemDO> orderItemMap = new HashMap<>();
+        if (CollUtil.isNotEmpty(orderSnList)) {
             LambdaQueryWrapper<OrderDO> orderQueryWrapper = Wrappers.lambdaQuery(OrderDO.class)
-                    .eq(OrderDO::getOrderSn, each.getOrderSn());
-            OrderDO orderDO = orderMapper.selectOne(orderQueryWrapper);
+                    .in(OrderDO::getOrderSn, orderSnList);
+            orderMapper.selectList(orderQueryWrapper).forEach(each -> orderMap.put(each.getOrderSn(), each));
             LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
-                    .eq(OrderItemDO::getOrderSn, each.getOrderSn())
-                    .eq(OrderItemDO::getIdCard, each.getIdCard());
-            OrderItemDO orderItemDO = orderItemMapper.selectOne(orderItemQueryWrapper);
-            TicketOrderDetailSelfRespDTO actualResult = BeanUtil.convert(orderDO, TicketOrderDetailSelfRespDTO.class);
-            BeanUtil.convertIgnoreNullAndBlank(orderItemDO, actualResult);
+                    .in(OrderItemDO::getOrderSn, orderSnList)
+                    .eq(OrderItemDO::getIdCard, userActualResp.getData().getIdCard());
+            orderItemMapper.selectList(orderItemQueryWrapper).forEach(each -> orderItemMap.putIfAbsent(each.getOrderSn(), each));
+        }
+        return PageUtil.convert(orderItemPassengerPage, each -> {
+            TicketOrderDetailSelfRespDTO actualResult = BeanUtil.convert(orderMap.get(each.getOrderSn()), TicketOrderDetailSelfRespDTO.class);
+            BeanUtil.convertIgnoreNullAndBlank(orderItemMap.get(each.getOrderSn()), actualResult);
             return actualResult;
         });
     }
@@ -17,8 +17,17 @@
 
 package org.opengoofy.index12306.biz.orderservice.service.orderid;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * 全局唯一订单号生成器
+ * <p>
+ * 时间戳与序号打包在同一个 {@link AtomicLong} 中通过 CAS 推进，替代原先的 synchronized；
+ * 单毫秒内 {@link #SEQUENCE_BITS} 位序号耗尽时，允许借用后续毫秒，突发流量下不必每毫秒自旋等待时钟前进。ID 位布局保持不变
+ * <p>
+ * 已发出 ID 的时间戳最多领先系统时钟 {@link #MAX_BORROW_MILLIS} 毫秒，超出后自旋等待时钟追上。
+ * 进程重启耗时远大于该上限，重启后系统时钟已越过上次发出的最大时间戳，不会生成重复 ID；
+ * 时钟回拨超过该上限时拒绝生成
  *
  * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
  */
@@ -27,37 +36,52 @@ public class DistributedIdGenerator {
     private static final long EPOCH = 1609459200000L;
     private static final int NODE_BITS = 5;
     private static final int SEQUENCE_BITS = 7;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * 序号耗尽时最多可领先系统时钟借用的毫秒数
+     */
+    private static final long MAX_BORROW_MILLIS = 5L;
 
     private final long nodeID;
-    private long lastTimestamp = -1L;
-    private long sequence = 0L;
+
+    /**
+     * 高位为上次使用的时间戳，低 {@link #SEQUENCE_BITS} 位为该毫秒内已分配的序号
+     */
+    private final AtomicLong state = new AtomicLong(-1L << SEQUENCE_BITS);
 
     public DistributedIdGenerator(long nodeID) {
         this.nodeID = nodeID;
     }
 
-    public synchronized long generateId() {
-        long timestamp = System.currentTimeMillis() - EPOCH;
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException("Clock moved backwards. Refusing to generate ID.");
-        }
-        if (timestamp == lastTimestamp) {
-            sequence = (sequence + 1) & ((1 << SEQUENCE_BITS) - 1);
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
+    public long generateId() {
+        for (; ; ) {
+            long current = state.get();
+            long lastTimestamp = current >> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH;
+            long timestamp;
+            long sequence;
+            if (now > lastTimestamp) {
+                timestamp = now;
+                sequence = 0L;
+            } else {
+                if (lastTimestamp - now > MAX_BORROW_MILLIS) {
+                    throw new RuntimeException("Clock moved backwards. Refusing to generate ID.");
+                }
+                timestamp = lastTimestamp;
+                sequence = ((current & SEQUENCE_MASK) + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    timestamp = lastTimestamp + 1;
+                    if (timestamp - now > MAX_BORROW_MILLIS) {
+                        // 借用窗口已满，等待时钟追上
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                }
+            }
+            if (state.compareAndSet(current, (timestamp << SEQUENCE_BITS) | sequence)) {
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeID << SEQUENCE_BITS) | sequence;
             }
-        } else {
-            sequence = 0L;
-        }
-        lastTimestamp = timestamp;
-        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeID << SEQUENCE_BITS) | sequence;
-    }
-
-    private long tilNextMillis(long lastTimestamp) {
-        long timestamp = System.currentTimeMillis() - EPOCH;
-        while (timestamp <= lastTimestamp) {
-            timestamp = System.currentTimeMillis() - EPOCH;
         }
-        return timestamp;
     }
 }
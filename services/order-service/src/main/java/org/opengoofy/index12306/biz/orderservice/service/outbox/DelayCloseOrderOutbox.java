@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.orderservice.service.outbox;
+
+import cn.hutool.core.collection.CollUtil;
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.opengoofy.index12306.biz.orderservice.dao.entity.OrderDelayCloseOutboxDO;
+import org.opengoofy.index12306.biz.orderservice.dao.mapper.OrderDelayCloseOutboxMapper;
+import org.opengoofy.index12306.biz.orderservice.mq.event.DelayCloseOrderEvent;
+import org.opengoofy.index12306.biz.orderservice.mq.produce.DelayCloseOrderSendProduce;
+import org.opengoofy.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟关闭订单消息发件箱
+ * 消息记录与订单在同一本地事务中写入，事务提交后异步投递，投递成功删除记录，投递失败或进程宕机遗留的记录由后台线程按退避时间重新投递
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DelayCloseOrderOutbox implements InitializingBean, DisposableBean {
+
+    private final OrderDelayCloseOutboxMapper orderDelayCloseOutboxMapper;
+    private final DelayCloseOrderSendProduce delayCloseOrderSendProduce;
+
+    /**
+     * 首次重投等待时间，避免与事务提交后正在进行的异步投递重复
+     */
+    @Value("${order.delay-close.outbox.first-retry-seconds:60}")
+    private long firstRetrySeconds;
+
+    /**
+     * 最大重投间隔
+     */
+    @Value("${order.delay-close.outbox.max-retry-interval-seconds:600}")
+    private long maxRetryIntervalSeconds;
+
+    /**
+     * 后台扫描间隔
+     */
+    @Value("${order.delay-close.outbox.scan-interval-seconds:10}")
+    private long scanIntervalSeconds;
+
+    /**
+     * 单次扫描重投数量
+     */
+    @Value("${order.delay-close.outbox.scan-batch-size:100}")
+    private long scanBatchSize;
+
+    private ScheduledExecutorService relayExecutor;
+
+    /**
+     * 保存延迟关闭订单消息，需在创建订单事务内调用，事务提交后异步投递
+     *
+     * @param userId               用户 ID
+     * @param delayCloseOrderEvent 延迟关闭订单事件
+     */
+    public void saveAndSendAfterCommit(String userId, DelayCloseOrderEvent delayCloseOrderEvent) {
+        OrderDelayCloseOutboxDO outboxDO = OrderDelayCloseOutboxDO.builder()
+                .orderSn(delayCloseOrderEvent.getOrderSn())
+                .userId(userId)
+                .payload(JSON.toJSONString(delayCloseOrderEvent))
+                .retryCount(0)
+                .nextRetryTime(new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(firstRetrySeconds)))
+                .build();
+        orderDelayCloseOutboxMapper.insert(outboxDO);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(outboxDO, delayCloseOrderEvent);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(outboxDO, delayCloseOrderEvent);
+            }
+        });
+    }
+
+    private void send(OrderDelayCloseOutboxDO outboxDO, DelayCloseOrderEvent delayCloseOrderEvent) {
+        delayCloseOrderSendProduce.asyncSendMessage(delayCloseOrderEvent, new SendCallback() {
+
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                if (Objects.equals(sendResult.getSendStatus(), SendStatus.SEND_OK)) {
+                    remove(outboxDO);
+                } else {
+                    delayRetry(outboxDO);
+                }
+            }
+
+            @Override
+            public void onException(Throwable ex) {
+                delayRetry(outboxDO);
+            }
+        });
+    }
+
+    private void relay() {
+        try {
+            LambdaQueryWrapper<OrderDelayCloseOutboxDO> queryWrapper = Wrappers.lambdaQuery(OrderDelayCloseOutboxDO.class)
+                    .le(OrderDelayCloseOutboxDO::getNextRetryTime, new Date());
+            List<OrderDelayCloseOutboxDO> outboxDOList = orderDelayCloseOutboxMapper.selectPage(new Page<>(1L, scanBatchSize, false), queryWrapper).getRecords();
+            if (CollUtil.isEmpty(outboxDOList)) {
+                return;
+            }
+            for (OrderDelayCloseOutboxDO each : outboxDOList) {
+                // 以重试次数为版本号条件更新下次重投时间，仅抢占成功的实例投递，投递过程中也不会被下一轮扫描重复拾取
+                if (delayRetry(each)) {
+                    send(each, JSON.parseObject(each.getPayload(), DelayCloseOrderEvent.class));
+                }
+            }
+        } catch (Throwable ex) {
+            log.error("[延迟关闭订单] 发件箱重新投递失败", ex);
+        }
+    }
+
+    private void remove(OrderDelayCloseOutboxDO outboxDO) {
+        try {
+            // 全局开启了逻辑删除，BaseMapper 删除仅更新删除标识，投递成功的记录需物理删除
+            orderDelayCloseOutboxMapper.deletePhysically(outboxDO);
+        } catch (Throwable ex) {
+            log.error("[延迟关闭订单] 订单号：{} 删除发件箱记录失败", outboxDO.getOrderSn(), ex);
+        }
+    }
+
+    /**
+     * 推迟发件箱记录的下次重投时间，仅当记录重试次数仍为读取时的值才更新
+     *
+     * @param outboxDO 发件箱记录
+     * @return 是否更新成功，多实例并发扫描同一记录时仅有一个实例返回 true
+     */
+    private boolean delayRetry(OrderDelayCloseOutboxDO outboxDO) {
+        try {
+            Integer expectedRetryCount = outboxDO.getRetryCount();
+            int retryCount = Objects.isNull(expectedRetryCount) ? 0 : expectedRetryCount;
+            long retryIntervalSeconds = Math.min(firstRetrySeconds << Math.min(retryCount, 16), maxRetryIntervalSeconds);
+            Date nextRetryTime = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(retryIntervalSeconds));
+            LambdaUpdateWrapper<OrderDelayCloseOutboxDO> updateWrapper = Wrappers.lambdaUpdate(OrderDelayCloseOutboxDO.class)
+                    .eq(OrderDelayCloseOutboxDO::getUserId, outboxDO.getUserId())
+                    .eq(OrderDelayCloseOutboxDO::getOrderSn, outboxDO.getOrderSn())
+                    .eq(OrderDelayCloseOutboxDO::getId, outboxDO.getId())
+                    .eq(Objects.nonNull(expectedRetryCount), OrderDelayCloseOutboxDO::getRetryCount, expectedRetryCount)
+                    .isNull(Objects.isNull(expectedRetryCount), OrderDelayCloseOutboxDO::getRetryCount);
+            OrderDelayCloseOutboxDO updateOutboxDO = OrderDelayCloseOutboxDO.builder()
+                    .retryCount(retryCount + 1)
+                    .nextRetryTime(nextRetryTime)
+                    .build();
+            if (orderDelayCloseOutboxMapper.update(updateOutboxDO, updateWrapper) != 1) {
+                return false;
+            }
+            outboxDO.setRetryCount(retryCount + 1);
+            outboxDO.setNextRetryTime(nextRetryTime);
+            return true;
+        } catch (Throwable ex) {
+            log.error("[延迟关闭订单] 订单号：{} 更新发件箱重试时间失败", outboxDO.getOrderSn(), ex);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        relayExecutor = Executors.newSingleThreadScheduledExecutor(ThreadFactoryBuilder.builder()
+                .prefix("delay-close-order-outbox_")
+                .daemon(true)
+                .build());
+        relayExecutor.scheduleWithFixedDelay(this::relay, scanIntervalSeconds, scanIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (relayExecutor != null) {
+            relayExecutor.shutdown();
+        }
+    }
+}
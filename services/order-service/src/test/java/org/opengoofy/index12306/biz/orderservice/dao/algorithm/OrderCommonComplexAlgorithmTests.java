@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.orderservice.dao.algorithm;
+
+import org.apache.shardingsphere.sharding.api.sharding.complex.ComplexKeysShardingValue;
+import org.apache.shardingsphere.sharding.exception.algorithm.sharding.ShardingAlgorithmInitializationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class OrderCommonComplexAlgorithmTests {
+
+    private static final String LOGIC_TABLE_NAME = "t_order";
+
+    private static final int SHARDING_COUNT = 16;
+
+    private static final String VIRTUAL_NODE_COUNT = "160";
+
+    /**
+     * 分片数量从 N 扩容到 N + 1 时，每个用户要么保持原分片，要么迁移到新增分片
+     */
+    @Test
+    void testShardingCountGrowthOnlyMovesKeysToNewShard() {
+        OrderCommonTableComplexAlgorithm beforeAlgorithm = createTableAlgorithm(SHARDING_COUNT);
+        OrderCommonTableComplexAlgorithm afterAlgorithm = createTableAlgorithm(SHARDING_COUNT + 1);
+        String newShardTableName = LOGIC_TABLE_NAME + "_" + SHARDING_COUNT;
+        int movedCount = 0;
+        for (long userId = 1L; userId <= 100000L; userId++) {
+            String beforeTableName = doSharding(beforeAlgorithm, userId);
+            String afterTableName = doSharding(afterAlgorithm, userId);
+            if (!beforeTableName.equals(afterTableName)) {
+                Assertions.assertEquals(newShardTableName, afterTableName, "user_id " + userId + " moved between existing shards");
+                movedCount++;
+            }
+        }
+        Assertions.assertTrue(movedCount > 0);
+    }
+
+    @Test
+    void testVirtualNodeCountMustBePositive() {
+        Properties tableProps = new Properties();
+        tableProps.setProperty("sharding-count", String.valueOf(SHARDING_COUNT));
+        tableProps.setProperty("virtual-node-count", "0");
+        Assertions.assertThrows(ShardingAlgorithmInitializationException.class, () -> new OrderCommonTableComplexAlgorithm().init(tableProps));
+        Properties databaseProps = new Properties();
+        databaseProps.setProperty("sharding-count", String.valueOf(SHARDING_COUNT));
+        databaseProps.setProperty("table-sharding-count", String.valueOf(SHARDING_COUNT / 2));
+        databaseProps.setProperty("virtual-node-count", "-1");
+        Assertions.assertThrows(ShardingAlgorithmInitializationException.class, () -> new OrderCommonDataBaseComplexAlgorithm().init(databaseProps));
+    }
+
+    private OrderCommonTableComplexAlgorithm createTableAlgorithm(int shardingCount) {
+        Properties props = new Properties();
+        props.setProperty("sharding-count", String.valueOf(shardingCount));
+        props.setProperty("virtual-node-count", VIRTUAL_NODE_COUNT);
+        OrderCommonTableComplexAlgorithm algorithm = new OrderCommonTableComplexAlgorithm();
+        algorithm.init(props);
+        return algorithm;
+    }
+
+    private String doSharding(OrderCommonTableComplexAlgorithm algorithm, long userId) {
+        List<String> availableTargetNames = IntStream.rangeClosed(0, SHARDING_COUNT)
+                .mapToObj(each -> LOGIC_TABLE_NAME + "_" + each)
+                .collect(Collectors.toList());
+        Map<String, Collection<Comparable<?>>> columnNameAndShardingValuesMap = Map.of("user_id", Collections.singletonList(userId));
+        Collection<String> result = algorithm.doSharding(availableTargetNames, new ComplexKeysShardingValue<>(LOGIC_TABLE_NAME, columnNameAndShardingValuesMap, Collections.emptyMap()));
+        Assertions.assertEquals(1, result.size());
+        return result.iterator().next();
+    }
+}
@@ -22,8 +22,6 @@ import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSONObject;
 import com.alipay.api.AlipayApiException;
 import com.alipay.api.AlipayClient;
-import com.alipay.api.AlipayConfig;
-import com.alipay.api.DefaultAlipayClient;
 import com.alipay.api.domain.AlipayTradePagePayModel;
 import com.alipay.api.request.AlipayTradePagePayRequest;
 import com.alipay.api.response.AlipayTradePagePayResponse;
@@ -37,7 +35,7 @@ import org.opengoofy.index12306.biz.payservice.dto.base.AliPayRequest;
 import org.opengoofy.index12306.biz.payservice.dto.base.PayRequest;
 import org.opengoofy.index12306.biz.payservice.dto.base.PayResponse;
 import org.opengoofy.index12306.biz.payservice.handler.base.AbstractPayHandler;
-import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
+import org.opengoofy.index12306.biz.payservice.handler.base.AliPayClientProvider;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
 import org.opengoofy.index12306.framework.starter.designpattern.strategy.AbstractExecuteStrategy;
 import org.springframework.retry.annotation.Backoff;
@@ -55,14 +53,14 @@ import org.springframework.stereotype.Service;
 public class AliPayNativeHandler extends AbstractPayHandler implements AbstractExecuteStrategy<PayRequest, PayResponse> {
 
     private final AliPayProperties aliPayProperties;
+    private final AliPayClientProvider aliPayClientProvider;
 
     @SneakyThrows(value = AlipayApiException.class)
     @Override
     @Retryable(value = ServiceException.class, maxAttempts = 3, backoff = @Backoff(delay = 1000, multiplier = 1.5))
     public PayResponse pay(PayRequest payRequest) {
         AliPayRequest aliPayRequest = payRequest.getAliPayRequest();
-        AlipayConfig alipayConfig = BeanUtil.convert(aliPayProperties, AlipayConfig.class);
-        AlipayClient alipayClient = new DefaultAlipayClient(alipayConfig);
+        AlipayClient alipayClient = aliPayClientProvider.getClient();
         AlipayTradePagePayModel model = new AlipayTradePagePayModel();
         model.setOutTradeNo(aliPayRequest.getOrderSn());
         model.setTotalAmount(aliPayRequest.getTotalAmount().toString());
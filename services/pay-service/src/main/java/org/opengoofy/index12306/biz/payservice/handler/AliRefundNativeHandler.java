@@ -22,8 +22,6 @@ import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson.JSONObject;
 import com.alipay.api.AlipayApiException;
 import com.alipay.api.AlipayClient;
-import com.alipay.api.AlipayConfig;
-import com.alipay.api.DefaultAlipayClient;
 import com.alipay.api.domain.AlipayTradeRefundModel;
 import com.alipay.api.request.AlipayTradeRefundRequest;
 import com.alipay.api.response.AlipayTradeRefundResponse;
@@ -33,12 +31,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.opengoofy.index12306.biz.payservice.common.enums.PayChannelEnum;
 import org.opengoofy.index12306.biz.payservice.common.enums.PayTradeTypeEnum;
 import org.opengoofy.index12306.biz.payservice.common.enums.TradeStatusEnum;
-import org.opengoofy.index12306.biz.payservice.config.AliPayProperties;
 import org.opengoofy.index12306.biz.payservice.dto.base.AliRefundRequest;
 import org.opengoofy.index12306.biz.payservice.dto.base.RefundRequest;
 import org.opengoofy.index12306.biz.payservice.dto.base.RefundResponse;
 import org.opengoofy.index12306.biz.payservice.handler.base.AbstractRefundHandler;
-import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
+import org.opengoofy.index12306.biz.payservice.handler.base.AliPayClientProvider;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
 import org.opengoofy.index12306.framework.starter.designpattern.strategy.AbstractExecuteStrategy;
 import org.opengoofy.index12306.framework.starter.distributedid.toolkit.SnowflakeIdUtil;
@@ -58,7 +55,7 @@ import java.math.BigDecimal;
 @RequiredArgsConstructor
 public class AliRefundNativeHandler extends AbstractRefundHandler implements AbstractExecuteStrategy<RefundRequest, RefundResponse> {
 
-    private final AliPayProperties aliPayProperties;
+    private final AliPayClientProvider aliPayClientProvider;
 
     private final static String SUCCESS_CODE = "10000";
 
@@ -69,8 +66,7 @@ public class AliRefundNativeHandler extends AbstractRefundHandler implements Abs
     @Override
     public RefundResponse refund(RefundRequest payRequest) {
         AliRefundRequest aliRefundRequest = payRequest.getAliRefundRequest();
-        AlipayConfig alipayConfig = BeanUtil.convert(aliPayProperties, AlipayConfig.class);
-        AlipayClient alipayClient = new DefaultAlipayClient(alipayConfig);
+        AlipayClient alipayClient = aliPayClientProvider.getClient();
         AlipayTradeRefundModel model = new AlipayTradeRefundModel();
         model.setOutTradeNo(aliRefundRequest.getOrderSn());
         model.setTradeNo(aliRefundRequest.getTradeNo());
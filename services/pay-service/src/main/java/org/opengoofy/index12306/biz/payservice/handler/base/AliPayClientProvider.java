@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.payservice.handler.base;
+
+import com.alipay.api.AlipayApiException;
+import com.alipay.api.AlipayClient;
+import com.alipay.api.AlipayConfig;
+import com.alipay.api.DefaultAlipayClient;
+import lombok.AllArgsConstructor;
+import org.opengoofy.index12306.biz.payservice.config.AliPayProperties;
+import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 支付宝客户端提供者
+ * <p>
+ * 按当前 {@link AliPayProperties} 缓存并复用 {@link AlipayClient}，避免每次支付、退款重复解析密钥和创建 HTTP 组件；配置变更后下一次获取时重建。
+ * 测试时可通过 {@link AlipayClientFactory} 替换为本地桩客户端
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Component
+public class AliPayClientProvider {
+
+    private final AliPayProperties aliPayProperties;
+
+    private final AlipayClientFactory alipayClientFactory;
+
+    private volatile CachedAlipayClient cachedAlipayClient;
+
+    @Autowired
+    public AliPayClientProvider(AliPayProperties aliPayProperties) {
+        this(aliPayProperties, DefaultAlipayClient::new);
+    }
+
+    public AliPayClientProvider(AliPayProperties aliPayProperties, AlipayClientFactory alipayClientFactory) {
+        this.aliPayProperties = aliPayProperties;
+        this.alipayClientFactory = alipayClientFactory;
+    }
+
+    /**
+     * 获取与当前配置一致的支付宝客户端
+     */
+    public AlipayClient getClient() {
+        CachedAlipayClient actual = cachedAlipayClient;
+        if (actual != null && actual.properties.equals(aliPayProperties)) {
+            return actual.client;
+        }
+        synchronized (this) {
+            actual = cachedAlipayClient;
+            if (actual == null || !actual.properties.equals(aliPayProperties)) {
+                AliPayProperties snapshot = BeanUtil.convert(aliPayProperties, AliPayProperties.class);
+                try {
+                    actual = new CachedAlipayClient(snapshot, alipayClientFactory.create(BeanUtil.convert(snapshot, AlipayConfig.class)));
+                } catch (AlipayApiException ex) {
+                    throw new ServiceException("创建支付宝客户端异常");
+                }
+                cachedAlipayClient = actual;
+            }
+            return actual.client;
+        }
+    }
+
+    /**
+     * 支付宝客户端工厂
+     */
+    @FunctionalInterface
+    public interface AlipayClientFactory {
+
+        AlipayClient create(AlipayConfig alipayConfig) throws AlipayApiException;
+    }
+
+    @AllArgsConstructor
+    private static final class CachedAlipayClient {
+
+        private final AliPayProperties properties;
+
+        private final AlipayClient client;
+    }
+}
@@ -25,6 +25,10 @@ import org.opengoofy.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
 import org.opengoofy.index12306.biz.ticketservice.mq.event.CanalBinlogEvent;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.designpattern.strategy.AbstractExecuteStrategy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
@@ -82,7 +86,20 @@ public class TicketAvailabilityCacheUpdateHandler implements AbstractExecuteStra
             cacheChangeKeyMap.put(hashCacheKey, seatTypeMap);
         }
         StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
-        cacheChangeKeyMap.forEach((cacheKey, cacheVal) -> cacheVal.forEach((seatType, num) -> instance.opsForHash().increment(cacheKey, String.valueOf(seatType), num)));
+        // 同一条 Binlog 消息聚合后的余票变更通过管道一次性提交，避免逐个 HINCRBY 往返
+        instance.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                HashOperations<String, String, String> opsForHash = ((RedisOperations<String, String>) operations).opsForHash();
+                cacheChangeKeyMap.forEach((cacheKey, cacheVal) -> cacheVal.forEach((seatType, num) -> {
+                    if (num != 0) {
+                        opsForHash.increment(cacheKey, String.valueOf(seatType), num);
+                    }
+                }));
+                return null;
+            }
+        });
     }
 
     @Override
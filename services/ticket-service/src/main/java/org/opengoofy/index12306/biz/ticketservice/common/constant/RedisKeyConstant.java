@@ -115,9 +115,9 @@ public final class RedisKeyConstant {
     public static final String QUERY_ALL_REGION_LIST = "index12306-ticket-service:query_all_region_list";
 
     /**
-     * 列车购买令牌桶，Key Prefix + 列车ID
+     * 列车购买令牌桶，Key Prefix + 列车ID，Hash Field 为 出发站下标_到达站下标_座位类型
      */
-    public static final String TICKET_AVAILABILITY_TOKEN_BUCKET = "index12306-ticket-service:ticket_availability_token_bucket:";
+    public static final String TICKET_AVAILABILITY_TOKEN_BUCKET = "index12306-ticket-service:ticket_availability_token_bucket_v2:";
 
     /**
      * 获取全部地点集合分布式锁 Key
@@ -143,4 +143,9 @@ public final class RedisKeyConstant {
      * 列车购买令牌桶加载数据 Key
      */
     public static final String LOCK_TICKET_AVAILABILITY_TOKEN_BUCKET = "index12306-ticket-service:lock:ticket_availability_token_bucket:%s";
+
+    /**
+     * 列车已购票乘车人集合，Key Prefix + 列车ID
+     */
+    public static final String TRAIN_PURCHASED_PASSENGER = "index12306-ticket-service:train_purchased_passenger:";
 }
@@ -58,6 +58,14 @@ public class TicketController {
         return Results.success(ticketService.pageListTicketQueryV1(requestParam));
     }
 
+    /**
+     * 根据条件查询车票v3
+     */
+    @GetMapping("/api/ticket-service/ticket/query/v3")
+    public Result<TicketPageQueryRespDTO> pageListTicketQueryV3(TicketPageQueryReqDTO requestParam) {
+        return Results.success(ticketService.pageListTicketQueryV3(requestParam));
+    }
+
     /**
      * 购买车票
      */
@@ -94,6 +102,24 @@ public class TicketController {
         return Results.success(ticketService.purchaseTicketsV2(requestParam));
     }
 
+    /**
+     * 购买车票v3
+     */
+    @ILog
+    @Idempotent(
+            uniqueKeyPrefix = "index12306-ticket:lock_purchase-tickets:",
+            key = "T(org.opengoofy.index12306.framework.starter.bases.ApplicationContextHolder).getBean('environment').getProperty('unique-name', '')"
+                    + "+'_'+"
+                    + "T(org.opengoofy.index12306.frameworks.starter.user.core.UserContext).getUsername()",
+            message = "正在执行下单流程，请稍后...",
+            scene = IdempotentSceneEnum.RESTAPI,
+            type = IdempotentTypeEnum.SPEL
+    )
+    @PostMapping("/api/ticket-service/ticket/purchase/v3")
+    public Result<TicketPurchaseRespDTO> purchaseTicketsV3(@RequestBody PurchaseTicketReqDTO requestParam) {
+        return Results.success(ticketService.purchaseTicketsV3(requestParam));
+    }
+
     /**
      * 取消车票订单
      */
@@ -20,7 +20,9 @@ package org.opengoofy.index12306.biz.ticketservice.dao.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
 
 import java.util.List;
 
@@ -40,4 +42,9 @@ public interface SeatMapper extends BaseMapper<SeatDO> {
      * 获取列车 startStation 到 endStation 区间可用座位集合
      */
     List<SeatTypeCountDTO> listSeatTypeCount(@Param("trainId") Long trainId, @Param("startStation") String startStation, @Param("endStation") String endStation, @Param("seatTypes")  List<Integer> seatTypes);
+
+    /**
+     * 批量更新座位以及沿途区段状态，座位与区段组合单条语句完成
+     */
+    int updateSeatStatusBatch(@Param("trainId") Long trainId, @Param("seatStatus") Integer seatStatus, @Param("seats") List<TrainPurchaseTicketRespDTO> seats, @Param("routes") List<RouteDTO> routes);
 }
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengoofy.index12306.biz.ticketservice.dao.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatSegmentDO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+
+import java.util.List;
+
+/**
+ * 座位区段位图持久层
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+public interface SeatSegmentMapper extends BaseMapper<SeatSegmentDO> {
+
+    /**
+     * 获取列车车厢中区段可用的座位号集合
+     */
+    List<String> listAvailableSeat(@Param("trainId") Long trainId, @Param("carriageNumber") String carriageNumber, @Param("seatType") Integer seatType, @Param("segmentMask") Long segmentMask);
+
+    /**
+     * 查询列车区段有余票的车厢号集合
+     */
+    List<String> listUsableCarriageNumber(@Param("trainId") Long trainId, @Param("seatType") Integer seatType, @Param("segmentMask") Long segmentMask);
+
+    /**
+     * 获取列车车厢区段余票集合
+     */
+    List<Integer> listSeatRemainingTicket(@Param("trainId") Long trainId, @Param("segmentMask") Long segmentMask, @Param("trainCarriageList") List<String> trainCarriageList);
+
+    /**
+     * 获取列车区段各座位类型余票数量
+     */
+    List<SeatTypeCountDTO> listSeatTypeCount(@Param("trainId") Long trainId, @Param("segmentMask") Long segmentMask, @Param("seatTypes") List<Integer> seatTypes);
+
+    /**
+     * 占用座位区段，仅更新区段全部空闲的座位，返回更新行数
+     */
+    int lockSeatSegment(@Param("trainId") Long trainId, @Param("segmentMask") Long segmentMask, @Param("seats") List<TrainPurchaseTicketRespDTO> seats);
+
+    /**
+     * 释放座位区段，返回更新行数
+     */
+    int unlockSeatSegment(@Param("trainId") Long trainId, @Param("segmentMask") Long segmentMask, @Param("seats") List<TrainPurchaseTicketRespDTO> seats);
+}
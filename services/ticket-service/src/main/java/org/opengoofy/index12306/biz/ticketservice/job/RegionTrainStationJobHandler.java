@@ -30,6 +30,7 @@ import org.opengoofy.index12306.biz.ticketservice.dao.entity.RegionDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationRelationDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.RegionMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationRelationMapper;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.RegionTrainStationIndexCache;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.common.toolkit.EnvironmentUtil;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -60,6 +61,7 @@ public class RegionTrainStationJobHandler extends IJobHandler {
     private final RegionMapper regionMapper;
     private final TrainStationRelationMapper trainStationRelationMapper;
     private final DistributedCache distributedCache;
+    private final RegionTrainStationIndexCache regionTrainStationIndexCache;
 
     @XxlJob(value = "regionTrainStationJobHandler")
     @GetMapping("/api/ticket-service/region-train-station/job/cache-init/execute")
@@ -93,6 +95,7 @@ public class RegionTrainStationJobHandler extends IJobHandler {
                     String buildCacheKey = REGION_TRAIN_STATION + StrUtil.join("_", startRegion, endRegion, dateTime);
                     stringRedisTemplate.opsForZSet().add(buildCacheKey, tuples);
                     stringRedisTemplate.expire(buildCacheKey, ADVANCE_TICKET_DAY, TimeUnit.DAYS);
+                    regionTrainStationIndexCache.refresh(startRegion, endRegion);
                 }
             }
         }
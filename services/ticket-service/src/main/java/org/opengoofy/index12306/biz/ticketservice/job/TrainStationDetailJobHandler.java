@@ -30,7 +30,10 @@ import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationRelationDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationRelationMapper;
 import org.opengoofy.index12306.biz.ticketservice.job.base.AbstractTrainStationJobHandlerTemplate;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.RegionTrainStationIndexCache;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRouteIndexCache;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.cache.MultistageCache;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -41,6 +44,7 @@ import java.util.concurrent.TimeUnit;
 
 import static cn.hutool.core.date.DatePattern.NORM_DATETIME_MINUTE_FORMAT;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_INFO;
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_DETAIL;
 
 /**
@@ -54,6 +58,9 @@ public class TrainStationDetailJobHandler extends AbstractTrainStationJobHandler
 
     private final TrainStationRelationMapper trainStationRelationMapper;
     private final DistributedCache distributedCache;
+    private final MultistageCache multistageCache;
+    private final RegionTrainStationIndexCache regionTrainStationIndexCache;
+    private final TrainStationRouteIndexCache trainStationRouteIndexCache;
 
     @XxlJob(value = "trainStationDetailJobHandler")
     @GetMapping("/api/ticket-service/train-station-detail/job/cache-init/execute")
@@ -65,11 +72,13 @@ public class TrainStationDetailJobHandler extends AbstractTrainStationJobHandler
     @Override
     protected void actualExecute(List<TrainDO> trainDOPageRecords) {
         for (TrainDO each : trainDOPageRecords) {
+            // 列车信息以数据库为准重新加载，同时通知所有实例失效本地缓存
+            multistageCache.delete(TRAIN_INFO + each.getId());
             LambdaQueryWrapper<TrainStationRelationDO> relationQueryWrapper = Wrappers.lambdaQuery(TrainStationRelationDO.class)
                     .eq(TrainStationRelationDO::getTrainId, each.getId());
             List<TrainStationRelationDO> trainStationRelationDOList = trainStationRelationMapper.selectList(relationQueryWrapper);
             if (CollUtil.isEmpty(trainStationRelationDOList)) {
-                return;
+                continue;
             }
             for (TrainStationRelationDO item : trainStationRelationDOList) {
                 Map<String, String> actualCacheHashValue = MapUtil.builder("trainNumber", each.getTrainNumber())
@@ -85,6 +94,8 @@ public class TrainStationDetailJobHandler extends AbstractTrainStationJobHandler
                 stringRedisTemplate.opsForHash().putAll(buildCacheKey, actualCacheHashValue);
                 stringRedisTemplate.expire(buildCacheKey, ADVANCE_TICKET_DAY, TimeUnit.DAYS);
             }
+            trainStationRouteIndexCache.invalidate(String.valueOf(each.getId()));
         }
+        regionTrainStationIndexCache.refreshTrains(trainDOPageRecords.stream().map(each -> String.valueOf(each.getId())).toList());
     }
 }
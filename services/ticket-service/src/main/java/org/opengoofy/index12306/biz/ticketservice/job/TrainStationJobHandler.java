@@ -27,7 +27,7 @@ import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationMapper;
 import org.opengoofy.index12306.biz.ticketservice.job.base.AbstractTrainStationJobHandlerTemplate;
-import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.cache.MultistageCache;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -48,7 +48,7 @@ import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKe
 public class TrainStationJobHandler extends AbstractTrainStationJobHandlerTemplate {
 
     private final TrainStationMapper trainStationMapper;
-    private final DistributedCache distributedCache;
+    private final MultistageCache multistageCache;
 
     @XxlJob(value = "trainStationJobHandler")
     @GetMapping("/api/ticket-service/train-station/job/cache-init/execute")
@@ -63,7 +63,7 @@ public class TrainStationJobHandler extends AbstractTrainStationJobHandlerTempla
             LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
                     .eq(TrainStationDO::getTrainId, each.getId());
             List<TrainStationDO> trainStationDOList = trainStationMapper.selectList(queryWrapper);
-            distributedCache.put(
+            multistageCache.put(
                     TRAIN_STATION_STOPOVER_DETAIL + each.getId(),
                     JSON.toJSONString(trainStationDOList),
                     Index12306Constant.ADVANCE_TICKET_DAY,
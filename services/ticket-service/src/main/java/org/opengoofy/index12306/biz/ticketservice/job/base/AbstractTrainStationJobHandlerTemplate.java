@@ -27,12 +27,21 @@ import com.xxl.job.core.handler.IJobHandler;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainMapper;
 import org.opengoofy.index12306.framework.starter.bases.ApplicationContextHolder;
+import org.opengoofy.index12306.framework.starter.common.threadpool.build.ThreadPoolBuilder;
 import org.opengoofy.index12306.framework.starter.common.toolkit.EnvironmentUtil;
+import org.opengoofy.index12306.framework.starter.convention.errorcode.BaseErrorCode;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 抽象列车&车票相关定时任务
@@ -48,25 +57,76 @@ public abstract class AbstractTrainStationJobHandlerTemplate extends IJobHandler
      */
     protected abstract void actualExecute(List<TrainDO> trainDOPageRecords);
 
+    /**
+     * 每次按主键游标拉取的列车数量
+     */
+    @Value("${ticket.job.train-station.page-size:1000}")
+    private long pageSize;
+
+    /**
+     * 并行处理分页记录的线程数，小于等于 1 时在当前线程顺序执行
+     */
+    @Value("${ticket.job.train-station.parallelism:4}")
+    private int parallelism;
+
     @Override
     public void execute() {
-        var currentPage = 1L;
-        var size = 1000L;
         var requestParam = getJobRequestParam();
         var dateTime = StrUtil.isNotBlank(requestParam) ? DateUtil.parse(requestParam, "yyyy-MM-dd") : DateUtil.tomorrow();
         var trainMapper = ApplicationContextHolder.getBean(TrainMapper.class);
-        for (; ; currentPage++) {
-            var queryWrapper = Wrappers.lambdaQuery(TrainDO.class)
-                    .between(TrainDO::getDepartureTime, DateUtil.beginOfDay(dateTime), DateUtil.endOfDay(dateTime));
-            var trainDOPage = trainMapper.selectPage(new Page<>(currentPage, size), queryWrapper);
-            if (trainDOPage == null || CollUtil.isEmpty(trainDOPage.getRecords())) {
-                break;
+        var executor = parallelism > 1 ? buildJobExecutor() : null;
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            Long lastId = null;
+            for (; ; ) {
+                // 按主键游标分页，避免 OFFSET 随页码增大而逐页变慢
+                var queryWrapper = Wrappers.lambdaQuery(TrainDO.class)
+                        .between(TrainDO::getDepartureTime, DateUtil.beginOfDay(dateTime), DateUtil.endOfDay(dateTime))
+                        .gt(lastId != null, TrainDO::getId, lastId)
+                        .orderByAsc(TrainDO::getId);
+                var trainDOPage = trainMapper.selectPage(new Page<>(1L, pageSize, false), queryWrapper);
+                if (trainDOPage == null || CollUtil.isEmpty(trainDOPage.getRecords())) {
+                    break;
+                }
+                var trainDOPageRecords = trainDOPage.getRecords();
+                lastId = trainDOPageRecords.get(trainDOPageRecords.size() - 1).getId();
+                if (executor == null) {
+                    actualExecute(trainDOPageRecords);
+                } else {
+                    futures.add(executor.submit(() -> actualExecute(trainDOPageRecords)));
+                }
+                if (trainDOPageRecords.size() < pageSize) {
+                    break;
+                }
+            }
+            for (Future<?> each : futures) {
+                each.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("列车定时任务执行被中断");
+        } catch (ExecutionException ex) {
+            throw new ServiceException("列车定时任务执行失败", ex.getCause(), BaseErrorCode.SERVICE_ERROR);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
             }
-            var trainDOPageRecords = trainDOPage.getRecords();
-            actualExecute(trainDOPageRecords);
         }
     }
 
+    /**
+     * 构建有界任务线程池，队列满时由拉取线程执行，避免分页拉取速度远超处理速度
+     */
+    private ThreadPoolExecutor buildJobExecutor() {
+        return ThreadPoolBuilder.builder()
+                .corePoolSize(parallelism)
+                .maximumPoolSize(parallelism)
+                .workQueue(new ArrayBlockingQueue<>(parallelism))
+                .threadFactory("train-station-job_", true)
+                .rejected(new ThreadPoolExecutor.CallerRunsPolicy())
+                .build();
+    }
+
     private String getJobRequestParam() {
         return EnvironmentUtil.isDevEnvironment()
                 ? Optional.ofNullable(((ServletRequestAttributes) RequestContextHolder.getRequestAttributes())).map(ServletRequestAttributes::getRequest).map(each -> each.getHeader("requestParam")).orElse(null)
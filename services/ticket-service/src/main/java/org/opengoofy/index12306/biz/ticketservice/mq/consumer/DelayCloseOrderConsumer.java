@@ -33,21 +33,19 @@ import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRe
 import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
 import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainPurchasedPassengerCache;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRemainingTicketCacheUpdater;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucket;
-import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
 import org.opengoofy.index12306.framework.starter.convention.result.Result;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
-
 /**
  * 延迟关闭订单消费者
  *
@@ -66,7 +64,8 @@ public final class DelayCloseOrderConsumer implements RocketMQListener<MessageWr
     private final SeatService seatService;
     private final TicketOrderRemoteService ticketOrderRemoteService;
     private final TrainStationService trainStationService;
-    private final DistributedCache distributedCache;
+    private final TrainStationRemainingTicketCacheUpdater trainStationRemainingTicketCacheUpdater;
+    private final TrainPurchasedPassengerCache trainPurchasedPassengerCache;
     private final TicketAvailabilityTokenBucket ticketAvailabilityTokenBucket;
 
     @Value("${ticket.availability.cache-update.type:}")
@@ -84,6 +83,17 @@ public final class DelayCloseOrderConsumer implements RocketMQListener<MessageWr
             log.error("[延迟关闭订单] 订单号：{} 远程调用订单服务失败", orderSn, ex);
             throw ex;
         }
+        if (closedTickOrder.isSuccess() && Boolean.TRUE.equals(closedTickOrder.getData())) {
+            List<String> passengerIds = delayCloseOrderEvent.getTrainPurchaseTicketResults().stream()
+                    .map(TrainPurchaseTicketRespDTO::getPassengerId)
+                    .toList();
+            try {
+                trainPurchasedPassengerCache.remove(delayCloseOrderEvent.getTrainId(), passengerIds);
+            } catch (Throwable ex) {
+                log.error("[延迟关闭订单] 订单号：{} 移除列车已购票乘车人失败", orderSn, ex);
+                throw ex;
+            }
+        }
         if (closedTickOrder.isSuccess() && !StrUtil.equals(ticketAvailabilityCacheUpdateType, "binlog")) {
             if (!closedTickOrder.getData()) {
                 log.info("[延迟关闭订单] 订单号：{} 用户已支付订单", orderSn);
@@ -100,17 +110,10 @@ public final class DelayCloseOrderConsumer implements RocketMQListener<MessageWr
                 throw ex;
             }
             try {
-                StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
-                Map<Integer, List<TrainPurchaseTicketRespDTO>> seatTypeMap = trainPurchaseTicketResults.stream()
-                        .collect(Collectors.groupingBy(TrainPurchaseTicketRespDTO::getSeatType));
+                Map<Integer, Integer> seatTypeCountMap = trainPurchaseTicketResults.stream()
+                        .collect(Collectors.groupingBy(TrainPurchaseTicketRespDTO::getSeatType, Collectors.summingInt(each -> 1)));
                 List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-                routeDTOList.forEach(each -> {
-                    String keySuffix = StrUtil.join("_", trainId, each.getStartStation(), each.getEndStation());
-                    seatTypeMap.forEach((seatType, trainPurchaseTicketRespDTOList) -> {
-                        stringRedisTemplate.opsForHash()
-                                .increment(TRAIN_STATION_REMAINING_TICKET + keySuffix, String.valueOf(seatType), trainPurchaseTicketRespDTOList.size());
-                    });
-                });
+                trainStationRemainingTicketCacheUpdater.increment(trainId, routeDTOList, seatTypeCountMap);
                 TicketOrderDetailRespDTO ticketOrderDetail = BeanUtil.convert(delayCloseOrderEvent, TicketOrderDetailRespDTO.class);
                 ticketOrderDetail.setPassengerDetails(BeanUtil.convert(delayCloseOrderEvent.getTrainPurchaseTicketResults(), TicketOrderPassengerDetailRespDTO.class));
                 ticketAvailabilityTokenBucket.rollbackInBucket(ticketOrderDetail);
@@ -48,6 +48,11 @@ public class TicketOrderItemCreateRemoteReqDTO {
      */
     private String seatNumber;
 
+    /**
+     * 乘车人 ID
+     */
+    private String passengerId;
+
     /**
      * 真实姓名
      */
@@ -58,6 +58,11 @@ public class TicketOrderPassengerDetailRespDTO {
      */
     private String seatNumber;
 
+    /**
+     * 乘车人 ID
+     */
+    private String passengerId;
+
     /**
      * 真实姓名
      */
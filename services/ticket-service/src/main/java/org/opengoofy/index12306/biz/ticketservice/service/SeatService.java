@@ -19,6 +19,7 @@ package org.opengoofy.index12306.biz.ticketservice.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
 
 import java.util.List;
@@ -64,6 +65,17 @@ public interface SeatService extends IService<SeatDO> {
      */
     List<String> listUsableCarriageNumber(String trainId, Integer carriageType, String departure, String arrival);
 
+    /**
+     * 获取列车区段各座位类型余票数量
+     *
+     * @param trainId   列车 ID
+     * @param departure 出发站
+     * @param arrival   到达站
+     * @param seatTypes 座位类型集合
+     * @return 座位类型余票数量集合，无余票的座位类型不返回
+     */
+    List<SeatTypeCountDTO> listSeatTypeCount(String trainId, String departure, String arrival, List<Integer> seatTypes);
+
     /**
      * 锁定选中以及沿途车票状态
      *
@@ -52,6 +52,14 @@ public interface TicketService extends IService<TicketDO> {
      */
     TicketPageQueryRespDTO pageListTicketQueryV2(TicketPageQueryReqDTO requestParam);
 
+    /**
+     * 根据条件分页查询车票V3本地索引版本
+     *
+     * @param requestParam 分页查询车票请求参数
+     * @return 查询车票返回结果
+     */
+    TicketPageQueryRespDTO pageListTicketQueryV3(TicketPageQueryReqDTO requestParam);
+
     /**
      * 购买车票
      *
@@ -68,6 +76,15 @@ public interface TicketService extends IService<TicketDO> {
      */
     TicketPurchaseRespDTO purchaseTicketsV2(@RequestBody PurchaseTicketReqDTO requestParam);
 
+    /**
+     * 购买车票V3组提交版本
+     * 相同列车座位类型的并发请求合并为批次，一次分布式锁以及一次事务结算整批请求
+     *
+     * @param requestParam 车票购买请求参数
+     * @return 订单号
+     */
+    TicketPurchaseRespDTO purchaseTicketsV3(@RequestBody PurchaseTicketReqDTO requestParam);
+
     /**
      * 执行购买车票
      * 被对应购票版本号接口调用 {@link TicketService#purchaseTicketsV1(PurchaseTicketReqDTO)} and {@link TicketService#purchaseTicketsV2(PurchaseTicketReqDTO)}
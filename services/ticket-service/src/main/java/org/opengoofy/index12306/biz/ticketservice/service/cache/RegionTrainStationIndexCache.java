@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.cache;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.StationDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationPriceDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationRelationDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.StationMapper;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainMapper;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationPriceMapper;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationRelationMapper;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.TicketListDTO;
+import org.opengoofy.index12306.biz.ticketservice.toolkit.DateUtil;
+import org.opengoofy.index12306.biz.ticketservice.toolkit.TimeStringComparator;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.cache.toolkit.CacheUtil;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.REGION_TRAIN_STATION_MAPPING;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_INFO;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_PRICE;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
+import static org.opengoofy.index12306.biz.ticketservice.toolkit.DateUtil.convertDateToLocalTime;
+
+/**
+ * 地区车次查询本地预计算索引
+ * 以起始城市_终点城市为维度缓存已排序的车次以及座位价格，车票查询 v3 版本无需反序列化 JSON 以及排序
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Component
+@RequiredArgsConstructor
+public class RegionTrainStationIndexCache {
+
+    private final TrainMapper trainMapper;
+    private final StationMapper stationMapper;
+    private final TrainStationRelationMapper trainStationRelationMapper;
+    private final TrainStationPriceMapper trainStationPriceMapper;
+    private final DistributedCache distributedCache;
+
+    /**
+     * 车站地区映射最大缓存数量
+     */
+    private static final long STATION_REGION_MAXIMUM_SIZE = 10000L;
+
+    /**
+     * 地区车次索引最大缓存数量
+     */
+    private static final long REGION_INDEX_MAXIMUM_SIZE = 10000L;
+
+    /**
+     * 列车 ID 与所属地区索引 Key 的反向映射，列车信息变更时按列车维度增量刷新，地区索引被淘汰时同步清理
+     */
+    private final Map<String, Set<String>> trainRegionIndexKeyMap = new ConcurrentHashMap<>();
+
+    /**
+     * 车站 Code 与地区名称映射
+     */
+    private final LoadingCache<String, String> stationRegionCache = Caffeine.newBuilder()
+            .maximumSize(STATION_REGION_MAXIMUM_SIZE)
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .build(this::loadStationRegion);
+
+    /**
+     * 起始城市_终点城市与已排序车次索引映射，定时异步刷新，刷新期间读取旧索引
+     */
+    private final LoadingCache<String, List<TicketIndexItem>> regionTrainStationIndex = Caffeine.newBuilder()
+            .maximumSize(REGION_INDEX_MAXIMUM_SIZE)
+            .refreshAfterWrite(10, TimeUnit.MINUTES)
+            .expireAfterWrite(ADVANCE_TICKET_DAY, TimeUnit.DAYS)
+            .removalListener((String regionIndexKey, List<TicketIndexItem> value, RemovalCause cause) -> {
+                if (regionIndexKey != null && cause.wasEvicted()) {
+                    pruneTrainRegionIndexKey(regionIndexKey);
+                }
+            })
+            .build(this::loadRegionTrainStationIndex);
+
+    /**
+     * 根据出发站点以及到达站点 Code 查询已排序的车次索引
+     *
+     * @param fromStation 出发站点 Code
+     * @param toStation   到达站点 Code
+     * @return 已按出发时间排序的车次索引，地区不存在返回空集合
+     */
+    public List<TicketIndexItem> listTicketIndex(String fromStation, String toStation) {
+        String startRegion = stationRegionCache.get(fromStation);
+        String endRegion = stationRegionCache.get(toStation);
+        if (startRegion == null || endRegion == null) {
+            return Collections.emptyList();
+        }
+        return regionTrainStationIndex.get(CacheUtil.buildKey(startRegion, endRegion));
+    }
+
+    /**
+     * 增量刷新指定地区的车次索引，仅刷新本实例已缓存的地区，未缓存的地区在首次查询时加载
+     *
+     * @param startRegion 起始城市
+     * @param endRegion   终点城市
+     */
+    public void refresh(String startRegion, String endRegion) {
+        refreshIfPresent(CacheUtil.buildKey(startRegion, endRegion));
+    }
+
+    /**
+     * 异步刷新指定列车所在的全部地区车次索引，刷新完成前继续返回旧索引
+     *
+     * @param trainIds 列车 ID 集合
+     */
+    public void refreshTrains(Collection<String> trainIds) {
+        Set<String> regionIndexKeys = new HashSet<>();
+        for (String each : trainIds) {
+            Set<String> trainRegionIndexKeys = trainRegionIndexKeyMap.get(each);
+            if (trainRegionIndexKeys != null) {
+                regionIndexKeys.addAll(trainRegionIndexKeys);
+            }
+        }
+        regionIndexKeys.forEach(this::refreshIfPresent);
+    }
+
+    private void refreshIfPresent(String regionIndexKey) {
+        // LoadingCache#refresh 对不存在的 Key 同样会加载，先判断避免构建未被查询过的地区索引
+        if (regionTrainStationIndex.asMap().containsKey(regionIndexKey)) {
+            regionTrainStationIndex.refresh(regionIndexKey);
+        }
+    }
+
+    private void pruneTrainRegionIndexKey(String regionIndexKey) {
+        for (String each : trainRegionIndexKeyMap.keySet()) {
+            trainRegionIndexKeyMap.computeIfPresent(each, (trainId, regionIndexKeys) -> {
+                regionIndexKeys.remove(regionIndexKey);
+                return regionIndexKeys.isEmpty() ? null : regionIndexKeys;
+            });
+        }
+    }
+
+    private String loadStationRegion(String stationCode) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        Object regionName = stringRedisTemplate.opsForHash().get(REGION_TRAIN_STATION_MAPPING, stationCode);
+        if (!CacheUtil.isNullOrBlank(regionName)) {
+            return regionName.toString();
+        }
+        LambdaQueryWrapper<StationDO> queryWrapper = Wrappers.lambdaQuery(StationDO.class)
+                .eq(StationDO::getCode, stationCode);
+        StationDO stationDO = stationMapper.selectOne(queryWrapper);
+        return stationDO != null ? stationDO.getRegionName() : null;
+    }
+
+    private List<TicketIndexItem> loadRegionTrainStationIndex(String regionIndexKey) {
+        List<String> regions = StrUtil.split(regionIndexKey, "_");
+        LambdaQueryWrapper<TrainStationRelationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationRelationDO.class)
+                .eq(TrainStationRelationDO::getStartRegion, regions.get(0))
+                .eq(TrainStationRelationDO::getEndRegion, regions.get(1));
+        List<TrainStationRelationDO> trainStationRelationList = trainStationRelationMapper.selectList(queryWrapper);
+        List<TicketIndexItem> result = new ArrayList<>(trainStationRelationList.size());
+        for (TrainStationRelationDO each : trainStationRelationList) {
+            String trainId = String.valueOf(each.getTrainId());
+            TrainDO trainDO = distributedCache.safeGet(
+                    TRAIN_INFO + trainId,
+                    TrainDO.class,
+                    () -> trainMapper.selectById(each.getTrainId()),
+                    ADVANCE_TICKET_DAY,
+                    TimeUnit.DAYS);
+            if (trainDO == null) {
+                continue;
+            }
+            TicketListDTO ticketList = new TicketListDTO();
+            ticketList.setTrainId(trainId);
+            ticketList.setTrainNumber(trainDO.getTrainNumber());
+            ticketList.setDepartureTime(convertDateToLocalTime(each.getDepartureTime(), "HH:mm"));
+            ticketList.setArrivalTime(convertDateToLocalTime(each.getArrivalTime(), "HH:mm"));
+            ticketList.setDuration(DateUtil.calculateHourDifference(each.getDepartureTime(), each.getArrivalTime()));
+            ticketList.setDeparture(each.getDeparture());
+            ticketList.setArrival(each.getArrival());
+            ticketList.setDepartureFlag(each.getDepartureFlag());
+            ticketList.setArrivalFlag(each.getArrivalFlag());
+            ticketList.setTrainType(trainDO.getTrainType());
+            ticketList.setTrainBrand(trainDO.getTrainBrand());
+            if (StrUtil.isNotBlank(trainDO.getTrainTag())) {
+                ticketList.setTrainTags(Collections.unmodifiableList(StrUtil.split(trainDO.getTrainTag(), ",")));
+            }
+            ticketList.setDaysArrived((int) cn.hutool.core.date.DateUtil.betweenDay(each.getDepartureTime(), each.getArrivalTime(), false));
+            ticketList.setSaleTime(convertDateToLocalTime(trainDO.getSaleTime(), "MM-dd HH:mm"));
+            List<TrainStationPriceDO> trainStationPriceList = loadTrainStationPrice(trainId, each.getDeparture(), each.getArrival());
+            String remainingTicketKey = TRAIN_STATION_REMAINING_TICKET + StrUtil.join("_", trainId, each.getDeparture(), each.getArrival());
+            List<SeatPriceItem> seatPriceItems = new ArrayList<>(trainStationPriceList.size());
+            for (TrainStationPriceDO item : trainStationPriceList) {
+                seatPriceItems.add(new SeatPriceItem(
+                        item.getSeatType(),
+                        String.valueOf(item.getSeatType()).getBytes(StandardCharsets.UTF_8),
+                        new BigDecimal(item.getPrice()).divide(new BigDecimal("100"), 1, RoundingMode.HALF_UP)));
+            }
+            result.add(new TicketIndexItem(ticketList, trainDO.getSaleTime(), remainingTicketKey, Collections.unmodifiableList(seatPriceItems)));
+            trainRegionIndexKeyMap.compute(trainId, (key, regionIndexKeys) -> {
+                Set<String> actualRegionIndexKeys = regionIndexKeys != null ? regionIndexKeys : ConcurrentHashMap.newKeySet();
+                actualRegionIndexKeys.add(regionIndexKey);
+                return actualRegionIndexKeys;
+            });
+        }
+        TimeStringComparator timeStringComparator = new TimeStringComparator();
+        result.sort((o1, o2) -> timeStringComparator.compare(o1.getTicketList(), o2.getTicketList()));
+        return Collections.unmodifiableList(result);
+    }
+
+    private List<TrainStationPriceDO> loadTrainStationPrice(String trainId, String departure, String arrival) {
+        String trainStationPriceStr = distributedCache.safeGet(
+                String.format(TRAIN_STATION_PRICE, trainId, departure, arrival),
+                String.class,
+                () -> {
+                    LambdaQueryWrapper<TrainStationPriceDO> queryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
+                            .eq(TrainStationPriceDO::getDeparture, departure)
+                            .eq(TrainStationPriceDO::getArrival, arrival)
+                            .eq(TrainStationPriceDO::getTrainId, trainId);
+                    return JSON.toJSONString(trainStationPriceMapper.selectList(queryWrapper));
+                },
+                ADVANCE_TICKET_DAY,
+                TimeUnit.DAYS
+        );
+        List<TrainStationPriceDO> trainStationPriceList = JSON.parseArray(trainStationPriceStr, TrainStationPriceDO.class);
+        return trainStationPriceList != null ? trainStationPriceList : Collections.emptyList();
+    }
+
+    /**
+     * 车次索引项，对象创建后不可变，查询时复制车次信息后再填充余票
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class TicketIndexItem {
+
+        /**
+         * 车次信息模板，不包含席别以及销售状态
+         */
+        private final TicketListDTO ticketList;
+
+        /**
+         * 可售时间
+         */
+        private final Date saleTime;
+
+        /**
+         * 站点余票缓存 Key，不包含缓存前缀
+         */
+        private final String remainingTicketKey;
+
+        /**
+         * 席别以及价格集合
+         */
+        private final List<SeatPriceItem> seatPriceItems;
+
+        /**
+         * 复制车次信息模板，返回可填充席别的新实例
+         */
+        public TicketListDTO copyTicketList() {
+            TicketListDTO result = new TicketListDTO();
+            result.setTrainId(ticketList.getTrainId());
+            result.setTrainNumber(ticketList.getTrainNumber());
+            result.setDepartureTime(ticketList.getDepartureTime());
+            result.setArrivalTime(ticketList.getArrivalTime());
+            result.setDuration(ticketList.getDuration());
+            result.setDaysArrived(ticketList.getDaysArrived());
+            result.setDeparture(ticketList.getDeparture());
+            result.setArrival(ticketList.getArrival());
+            result.setDepartureFlag(ticketList.getDepartureFlag());
+            result.setArrivalFlag(ticketList.getArrivalFlag());
+            result.setTrainType(ticketList.getTrainType());
+            result.setSaleTime(ticketList.getSaleTime());
+            result.setSaleStatus(new Date().after(saleTime) ? 0 : 1);
+            result.setTrainTags(ticketList.getTrainTags());
+            result.setTrainBrand(ticketList.getTrainBrand());
+            return result;
+        }
+    }
+
+    /**
+     * 席别价格索引项
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class SeatPriceItem {
+
+        /**
+         * 座位类型
+         */
+        private final Integer seatType;
+
+        /**
+         * 座位类型 Hash Field 字节数组，避免查询时重复编码
+         */
+        private final byte[] seatTypeField;
+
+        /**
+         * 价格，单位元
+         */
+        private final BigDecimal price;
+    }
+}
@@ -18,16 +18,13 @@
 package org.opengoofy.index12306.biz.ticketservice.service.cache;
 
 import cn.hutool.core.collection.CollUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import lombok.RequiredArgsConstructor;
-import org.opengoofy.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
-import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainDO;
-import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainMapper;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
 import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.cache.toolkit.CacheUtil;
@@ -55,7 +52,7 @@ import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKe
 public class SeatMarginCacheLoader {
 
     private final TrainMapper trainMapper;
-    private final SeatMapper seatMapper;
+    private final SeatService seatService;
     private final DistributedCache distributedCache;
     private final RedissonClient redissonClient;
     private final TrainStationService trainStationService;
@@ -131,14 +128,9 @@ public class SeatMarginCacheLoader {
     }
 
     private String selectSeatMargin(String trainId, Integer type, String departure, String arrival) {
-        LambdaQueryWrapper<SeatDO> queryWrapper = Wrappers.lambdaQuery(SeatDO.class)
-                .eq(SeatDO::getTrainId, trainId)
-                .eq(SeatDO::getSeatType, type)
-                .eq(SeatDO::getSeatStatus, SeatStatusEnum.AVAILABLE.getCode())
-                .eq(SeatDO::getStartStation, departure)
-                .eq(SeatDO::getEndStation, arrival);
-        return Optional.ofNullable(seatMapper.selectCount(queryWrapper))
-                .map(String::valueOf)
-                .orElse("0");
+        int seatCount = seatService.listSeatTypeCount(trainId, departure, arrival, List.of(type)).stream()
+                .mapToInt(SeatTypeCountDTO::getSeatCount)
+                .sum();
+        return String.valueOf(seatCount);
     }
 }
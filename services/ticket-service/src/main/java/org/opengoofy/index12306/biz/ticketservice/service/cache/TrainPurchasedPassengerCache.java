@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import lombok.RequiredArgsConstructor;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_PURCHASED_PASSENGER;
+
+/**
+ * 列车已购票乘车人缓存
+ * 列车 ID 对应具体日期的车次，按列车维度记录已持有未取消车票或正在购票的乘车人，购票前原子预占拦截重复购买
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainPurchasedPassengerCache {
+
+    private final DistributedCache distributedCache;
+
+    /**
+     * 原子预占乘车人列车购票资格，SADD 返回 0 说明乘车人已持有当前车次车票或正在购买
+     * 存在已预占乘车人时回滚本次新增的预占，调用方需在购票失败时调用 {@link #remove(String, List)} 释放预占
+     *
+     * @param trainId      列车 ID
+     * @param passengerIds 乘车人 ID 集合
+     * @return 已购买列车车票的乘车人 ID 集合，为空表示全部预占成功
+     */
+    public List<String> reserve(String trainId, List<String> passengerIds) {
+        List<String> purchasedPassengerIds = new ArrayList<>();
+        if (CollUtil.isEmpty(passengerIds)) {
+            return purchasedPassengerIds;
+        }
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        String key = TRAIN_PURCHASED_PASSENGER + trainId;
+        List<Object> addResults = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> actualOperations = (RedisOperations<String, String>) operations;
+                SetOperations<String, String> opsForSet = actualOperations.opsForSet();
+                passengerIds.forEach(each -> opsForSet.add(key, each));
+                actualOperations.expire(key, ADVANCE_TICKET_DAY, TimeUnit.DAYS);
+                return null;
+            }
+        });
+        List<String> reservedPassengerIds = new ArrayList<>();
+        for (int i = 0; i < passengerIds.size(); i++) {
+            if (Objects.equals(addResults.get(i), 1L)) {
+                reservedPassengerIds.add(passengerIds.get(i));
+            } else {
+                purchasedPassengerIds.add(passengerIds.get(i));
+            }
+        }
+        if (CollUtil.isNotEmpty(purchasedPassengerIds)) {
+            remove(trainId, reservedPassengerIds);
+        }
+        return purchasedPassengerIds;
+    }
+
+    /**
+     * 移除购票失败、取消、关闭或退款订单的乘车人
+     *
+     * @param trainId      列车 ID
+     * @param passengerIds 乘车人 ID 集合
+     */
+    public void remove(String trainId, List<String> passengerIds) {
+        if (CollUtil.isEmpty(passengerIds)) {
+            return;
+        }
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        stringRedisTemplate.opsForSet().remove(TRAIN_PURCHASED_PASSENGER + trainId, passengerIds.toArray());
+    }
+}
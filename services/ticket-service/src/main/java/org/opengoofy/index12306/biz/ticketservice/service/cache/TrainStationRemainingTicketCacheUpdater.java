@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.map.MapUtil;
+import lombok.RequiredArgsConstructor;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import org.opengoofy.index12306.framework.starter.bases.Singleton;
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.cache.toolkit.CacheUtil;
+import org.opengoofy.index12306.framework.starter.common.toolkit.Assert;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
+
+/**
+ * 列车站点余票缓存变更
+ * 通过 LUA 脚本一次性原子变更全部扣减路线的站点余票
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainStationRemainingTicketCacheUpdater {
+
+    private final DistributedCache distributedCache;
+
+    private static final String LUA_TRAIN_STATION_REMAINING_TICKET_INCREMENT_PATH = "lua/train_station_remaining_ticket_increment.lua";
+
+    /**
+     * 变更列车全部扣减路线的站点余票
+     *
+     * @param trainId          列车 ID
+     * @param routeDTOList     需扣减列车站点路线关系
+     * @param seatTypeCountMap 座位类型与变更数量，扣减传负数，回滚传正数
+     */
+    public void increment(String trainId, List<RouteDTO> routeDTOList, Map<Integer, Integer> seatTypeCountMap) {
+        if (CollUtil.isEmpty(routeDTOList) || MapUtil.isEmpty(seatTypeCountMap)) {
+            return;
+        }
+        DefaultRedisScript<Long> actual = Singleton.get(LUA_TRAIN_STATION_REMAINING_TICKET_INCREMENT_PATH, () -> {
+            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TRAIN_STATION_REMAINING_TICKET_INCREMENT_PATH)));
+            redisScript.setResultType(Long.class);
+            return redisScript;
+        });
+        Assert.notNull(actual);
+        List<String> keys = new ArrayList<>(routeDTOList.size());
+        routeDTOList.forEach(each -> keys.add(TRAIN_STATION_REMAINING_TICKET + CacheUtil.buildKey(trainId, each.getStartStation(), each.getEndStation())));
+        List<String> args = new ArrayList<>(seatTypeCountMap.size() * 2);
+        seatTypeCountMap.forEach((seatType, count) -> {
+            args.add(String.valueOf(seatType));
+            args.add(String.valueOf(count));
+        });
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        stringRedisTemplate.execute(actual, keys, args.toArray());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.RequiredArgsConstructor;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationMapper;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import org.opengoofy.index12306.biz.ticketservice.toolkit.StationCalculateUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 列车站点路线本地索引
+ * 以列车 ID 为维度缓存按停靠顺序排列的站点，以及按出发站_到达站计算后的路线关系，购票以及退票链路无需查询数据库
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainStationRouteIndexCache {
+
+    private final TrainStationMapper trainStationMapper;
+
+    /**
+     * 列车 ID 与站点路线索引映射，列车站点变更时需显式调用 {@link #invalidate(String)} 失效
+     */
+    private final LoadingCache<String, TrainStationRouteIndex> trainStationRouteIndex = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .build(this::loadTrainStationRouteIndex);
+
+    /**
+     * 获取列车站点路线索引
+     *
+     * @param trainId 列车 ID
+     * @return 列车站点路线索引
+     */
+    public TrainStationRouteIndex get(String trainId) {
+        return trainStationRouteIndex.get(trainId);
+    }
+
+    /**
+     * 失效指定列车的站点路线索引
+     *
+     * @param trainId 列车 ID
+     */
+    public void invalidate(String trainId) {
+        trainStationRouteIndex.invalidate(trainId);
+    }
+
+    private TrainStationRouteIndex loadTrainStationRouteIndex(String trainId) {
+        LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
+                .eq(TrainStationDO::getTrainId, trainId)
+                .orderByAsc(TrainStationDO::getSequence)
+                .select(TrainStationDO::getDeparture);
+        List<TrainStationDO> trainStationDOList = trainStationMapper.selectList(queryWrapper);
+        List<String> stations = trainStationDOList.stream().map(TrainStationDO::getDeparture).collect(Collectors.toList());
+        return new TrainStationRouteIndex(stations);
+    }
+
+    /**
+     * 列车站点路线索引，不可变对象
+     * 路线关系按出发站_到达站维度首次计算后复用，返回集合均不可修改
+     */
+    public static final class TrainStationRouteIndex {
+
+        private final List<String> stations;
+
+        private final Map<String, Integer> stationIndexMap;
+
+        private final Map<Integer, List<RouteDTO>> throughStationMap = new ConcurrentHashMap<>();
+
+        private final Map<Integer, List<RouteDTO>> takeoutStationMap = new ConcurrentHashMap<>();
+
+        private TrainStationRouteIndex(List<String> stations) {
+            this.stations = Collections.unmodifiableList(stations);
+            Map<String, Integer> stationIndexMap = new HashMap<>(stations.size() << 1);
+            for (int i = 0; i < stations.size(); i++) {
+                stationIndexMap.putIfAbsent(stations.get(i), i);
+            }
+            this.stationIndexMap = Collections.unmodifiableMap(stationIndexMap);
+        }
+
+        /**
+         * 按停靠顺序排列的站点名称
+         */
+        public List<String> getStations() {
+            return stations;
+        }
+
+        /**
+         * 站点在停靠顺序中的下标，站点不存在返回 -1
+         */
+        public int indexOf(String station) {
+            return stationIndexMap.getOrDefault(station, -1);
+        }
+
+        /**
+         * 出发站和终点站中间的路线关系，语义同 {@link StationCalculateUtil#throughStation(List, String, String)}
+         */
+        public List<RouteDTO> throughStation(String startStation, String endStation) {
+            Integer routeKey = routeKey(startStation, endStation);
+            if (routeKey == null) {
+                return Collections.emptyList();
+            }
+            return throughStationMap.computeIfAbsent(routeKey,
+                    key -> Collections.unmodifiableList(StationCalculateUtil.throughStation(stations, startStation, endStation)));
+        }
+
+        /**
+         * 出发站和终点站需要扣减余票的路线关系，语义同 {@link StationCalculateUtil#takeoutStation(List, String, String)}
+         */
+        public List<RouteDTO> takeoutStation(String startStation, String endStation) {
+            Integer routeKey = routeKey(startStation, endStation);
+            if (routeKey == null) {
+                return Collections.emptyList();
+            }
+            return takeoutStationMap.computeIfAbsent(routeKey,
+                    key -> Collections.unmodifiableList(StationCalculateUtil.takeoutStation(stations, startStation, endStation)));
+        }
+
+        private Integer routeKey(String startStation, String endStation) {
+            Integer startIndex = stationIndexMap.get(startStation);
+            Integer endIndex = stationIndexMap.get(endStation);
+            if (startIndex == null || endIndex == null || startIndex >= endIndex) {
+                return null;
+            }
+            return startIndex * stations.size() + endIndex;
+        }
+    }
+}
@@ -18,9 +18,6 @@
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.collection.ListUtil;
-import cn.hutool.core.lang.Pair;
-import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
@@ -32,21 +29,17 @@ import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.Bi
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.BitMapCheckSeatStatusFactory;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.CarriageSeatMap;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
-import org.opengoofy.index12306.biz.ticketservice.toolkit.CarriageVacantSeatCalculateUtil;
-import org.opengoofy.index12306.biz.ticketservice.toolkit.SeatNumberUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.BitMapCheckSeatStatusFactory.TRAIN_BUSINESS;
 
@@ -61,7 +54,10 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
 
     private final SeatService seatService;
 
-    private static final Map<Character, Integer> SEAT_Y_INT = Map.of('A', 0, 'C', 1, 'F', 2);
+    /**
+     * 多人购票时按组分配邻座的每组人数
+     */
+    private static final int ADJACENT_GROUP_SIZE = 2;
 
     @Override
     public String mark() {
@@ -82,185 +78,74 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
         }
         if (passengerSeatDetails.size() < 3) {
             if (CollUtil.isNotEmpty(requestParam.getRequestParam().getChooseSeats())) {
-                Pair<List<TrainPurchaseTicketRespDTO>, Boolean> actualSeatPair = findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
-                return actualSeatPair.getKey();
+                return findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
             }
             return selectSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
         } else {
             if (CollUtil.isNotEmpty(requestParam.getRequestParam().getChooseSeats())) {
-                Pair<List<TrainPurchaseTicketRespDTO>, Boolean> actualSeatPair = findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
-                return actualSeatPair.getKey();
+                return findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
             }
             return selectComplexSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
         }
     }
 
-    private Pair<List<TrainPurchaseTicketRespDTO>, Boolean> findMatchSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
+    private List<TrainPurchaseTicketRespDTO> findMatchSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
         TrainSeatBaseDTO trainSeatBaseDTO = buildTrainSeatBaseDTO(requestParam);
-        int chooseSeatSize = trainSeatBaseDTO.getChooseSeatList().size();
-        List<TrainPurchaseTicketRespDTO> actualResult = Lists.newArrayListWithCapacity(trainSeatBaseDTO.getPassengerSeatDetails().size());
+        List<String> chooseSeatList = trainSeatBaseDTO.getChooseSeatList();
+        int chooseSeatSize = chooseSeatList.size();
+        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = trainSeatBaseDTO.getPassengerSeatDetails();
         BitMapCheckSeat instance = BitMapCheckSeatStatusFactory.getInstance(TRAIN_BUSINESS);
-        HashMap<String, List<Pair<Integer, Integer>>> carriagesSeatMap = new HashMap<>(4);
-        int passengersNumber = trainSeatBaseDTO.getPassengerSeatDetails().size();
+        Map<String, int[]> carriagesSeatMap = new HashMap<>(4);
+        int passengersNumber = passengerSeatDetails.size();
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             String carriagesNumber = trainCarriageList.get(i);
             List<String> listAvailableSeat = seatService.listAvailableSeat(trainSeatBaseDTO.getTrainId(), carriagesNumber, requestParam.getSeatType(), trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
-            }
-            List<Pair<Integer, Integer>> vacantSeatList = CarriageVacantSeatCalculateUtil.buildCarriageVacantSeatList2(actualSeats, 2, 3);
-            boolean isExists = instance.checkChooseSeat(trainSeatBaseDTO.getChooseSeatList(), actualSeats, SEAT_Y_INT);
-            long vacantSeatCount = vacantSeatList.size();
-            List<Pair<Integer, Integer>> sureSeatList = new ArrayList<>();
-            List<String> selectSeats = Lists.newArrayListWithCapacity(passengersNumber);
-            boolean flag = false;
-            if (isExists && vacantSeatCount >= passengersNumber) {
-                Iterator<Pair<Integer, Integer>> pairIterator = vacantSeatList.iterator();
-                for (int i1 = 0; i1 < chooseSeatSize; i1++) {
-                    if (chooseSeatSize == 1) {
-                        String chooseSeat = trainSeatBaseDTO.getChooseSeatList().get(i1);
-                        int seatX = Integer.parseInt(chooseSeat.substring(1));
-                        int seatY = SEAT_Y_INT.get(chooseSeat.charAt(0));
-                        if (actualSeats[seatX][seatY] == 0) {
-                            sureSeatList.add(new Pair<>(seatX, seatY));
-                            while (pairIterator.hasNext()) {
-                                Pair<Integer, Integer> pair = pairIterator.next();
-                                if (pair.getKey() == seatX && pair.getValue() == seatY) {
-                                    pairIterator.remove();
-                                    break;
-                                }
-                            }
+            int[][] actualSeats = CarriageSeatMap.TRAIN_BUSINESS_CLASS.toSeatLayout(listAvailableSeat);
+            int[] vacantSeatIndexes = CarriageSeatMap.TRAIN_BUSINESS_CLASS.vacantSeatIndexes(actualSeats);
+            boolean isExists = instance.checkChooseSeat(chooseSeatList, actualSeats, CarriageSeatMap.TRAIN_BUSINESS_CLASS);
+            if (isExists && vacantSeatIndexes.length >= passengersNumber) {
+                int[] sureSeatIndexes = new int[passengersNumber];
+                int sureSeatCount = 0;
+                boolean flag = false;
+                for (int i1 = 0; i1 < chooseSeatSize && sureSeatCount < passengersNumber; i1++) {
+                    String chooseSeat = chooseSeatList.get(i1);
+                    int seatX = Integer.parseInt(chooseSeat.substring(1));
+                    int seatY = CarriageSeatMap.TRAIN_BUSINESS_CLASS.columnIndex(chooseSeat.charAt(0));
+                    if (actualSeats[seatX][seatY] == 0) {
+                        sureSeatIndexes[sureSeatCount++] = CarriageSeatMap.TRAIN_BUSINESS_CLASS.seatIndex(seatX, seatY);
+                    } else if (chooseSeatSize == 1) {
+                        if (actualSeats[1][seatY] == 0) {
+                            sureSeatIndexes[sureSeatCount++] = CarriageSeatMap.TRAIN_BUSINESS_CLASS.seatIndex(1, seatY);
                         } else {
-                            if (actualSeats[1][seatY] == 0) {
-                                sureSeatList.add(new Pair<>(1, seatY));
-                                while (pairIterator.hasNext()) {
-                                    Pair<Integer, Integer> pair = pairIterator.next();
-                                    if (pair.getKey() == 1 && pair.getValue() == seatY) {
-                                        pairIterator.remove();
-                                        break;
-                                    }
-                                }
-                            } else {
-                                flag = true;
-                            }
-                        }
-                    } else {
-                        String chooseSeat = trainSeatBaseDTO.getChooseSeatList().get(i1);
-                        int seatX = Integer.parseInt(chooseSeat.substring(1));
-                        int seatY = SEAT_Y_INT.get(chooseSeat.charAt(0));
-                        if (actualSeats[seatX][seatY] == 0) {
-                            sureSeatList.add(new Pair<>(seatX, seatY));
-                            while (pairIterator.hasNext()) {
-                                Pair<Integer, Integer> pair = pairIterator.next();
-                                if (pair.getKey() == seatX && pair.getValue() == seatY) {
-                                    pairIterator.remove();
-                                    break;
-                                }
-                            }
+                            flag = true;
                         }
                     }
                 }
                 if (flag && i < trainStationCarriageRemainingTicket.size() - 1) {
                     continue;
                 }
-                if (sureSeatList.size() != passengersNumber) {
-                    int needSeatSize = passengersNumber - sureSeatList.size();
-                    sureSeatList.addAll(vacantSeatList.subList(0, needSeatSize));
-                }
-                for (Pair<Integer, Integer> each : sureSeatList) {
-                    selectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(0, (each.getValue() + 1)));
-                }
-                AtomicInteger countNum = new AtomicInteger(0);
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(carriagesNumber);
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
-                }
-                return new Pair<>(actualResult, Boolean.TRUE);
-            } else {
-                if (i < trainStationCarriageRemainingTicket.size()) {
-                    if (vacantSeatCount > 0) {
-                        carriagesSeatMap.put(carriagesNumber, vacantSeatList);
+                if (sureSeatCount < passengersNumber) {
+                    for (int j = 0; j < sureSeatCount; j++) {
+                        CarriageSeatMap.TRAIN_BUSINESS_CLASS.occupy(actualSeats, sureSeatIndexes[j]);
                     }
-                    if (i == trainStationCarriageRemainingTicket.size() - 1) {
-                        Pair<String, List<Pair<Integer, Integer>>> findSureCarriage = null;
-                        for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
-                            if (entry.getValue().size() >= passengersNumber) {
-                                findSureCarriage = new Pair<>(entry.getKey(), entry.getValue().subList(0, passengersNumber));
-                                break;
-                            }
+                    for (int j = 0; j < vacantSeatIndexes.length && sureSeatCount < passengersNumber; j++) {
+                        if (CarriageSeatMap.TRAIN_BUSINESS_CLASS.isVacant(actualSeats, vacantSeatIndexes[j])) {
+                            sureSeatIndexes[sureSeatCount++] = vacantSeatIndexes[j];
                         }
-                        if (null != findSureCarriage) {
-                            sureSeatList = findSureCarriage.getValue().subList(0, passengersNumber);
-                            for (Pair<Integer, Integer> each : sureSeatList) {
-                                selectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(0, each.getValue() + 1));
-                            }
-                            AtomicInteger countNum = new AtomicInteger(0);
-                            for (String selectSeat : selectSeats) {
-                                TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                result.setSeatNumber(selectSeat);
-                                result.setSeatType(currentTicketPassenger.getSeatType());
-                                result.setCarriageNumber(findSureCarriage.getKey());
-                                result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                actualResult.add(result);
-                            }
-                        } else {
-                            int sureSeatListSize = 0;
-                            AtomicInteger countNum = new AtomicInteger(0);
-                            for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
-                                if (sureSeatListSize < passengersNumber) {
-                                    if (sureSeatListSize + entry.getValue().size() < passengersNumber) {
-                                        sureSeatListSize = sureSeatListSize + entry.getValue().size();
-                                        List<String> actualSelectSeats = new ArrayList<>();
-                                        for (Pair<Integer, Integer> each : entry.getValue()) {
-                                            actualSelectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(0, each.getValue() + 1));
-                                        }
-                                        for (String selectSeat : actualSelectSeats) {
-                                            TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                            PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                            result.setSeatNumber(selectSeat);
-                                            result.setSeatType(currentTicketPassenger.getSeatType());
-                                            result.setCarriageNumber(entry.getKey());
-                                            result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                            actualResult.add(result);
-                                        }
-                                    } else {
-                                        int needSeatSize = entry.getValue().size() - (sureSeatListSize + entry.getValue().size() - passengersNumber);
-                                        sureSeatListSize = sureSeatListSize + needSeatSize;
-                                        if (sureSeatListSize >= passengersNumber) {
-                                            List<String> actualSelectSeats = new ArrayList<>();
-                                            for (Pair<Integer, Integer> each : entry.getValue().subList(0, needSeatSize)) {
-                                                actualSelectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(0, each.getValue() + 1));
-                                            }
-                                            for (String selectSeat : actualSelectSeats) {
-                                                TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                                PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                                result.setSeatNumber(selectSeat);
-                                                result.setSeatType(currentTicketPassenger.getSeatType());
-                                                result.setCarriageNumber(entry.getKey());
-                                                result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                                actualResult.add(result);
-                                            }
-                                            break;
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        return new Pair<>(actualResult, Boolean.TRUE);
                     }
                 }
+                List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>(passengersNumber);
+                assignSeats(CarriageSeatMap.TRAIN_BUSINESS_CLASS, carriagesNumber, sureSeatIndexes, sureSeatCount, passengerSeatDetails, 0, actualResult);
+                return actualResult;
+            }
+            if (vacantSeatIndexes.length > 0) {
+                carriagesSeatMap.put(carriagesNumber, vacantSeatIndexes);
+            }
+            if (i == trainStationCarriageRemainingTicket.size() - 1) {
+                return assignVacantSeats(CarriageSeatMap.TRAIN_BUSINESS_CLASS, carriagesSeatMap, passengerSeatDetails);
             }
         }
-        return new Pair<>(null, Boolean.FALSE);
+        return Collections.emptyList();
     }
 
     private List<TrainPurchaseTicketRespDTO> selectSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
@@ -268,87 +153,25 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
         String departure = requestParam.getRequestParam().getDeparture();
         String arrival = requestParam.getRequestParam().getArrival();
         List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-        List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>();
-        Map<String, Integer> demotionStockNumMap = new LinkedHashMap<>();
-        Map<String, int[][]> actualSeatsMap = new HashMap<>();
-        Map<String, int[][]> carriagesNumberSeatsMap = new HashMap<>();
-        String carriagesNumber;
+        int passengersNumber = passengerSeatDetails.size();
+        Map<String, int[]> carriagesVacantSeatMap = new LinkedHashMap<>();
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
-            carriagesNumber = trainCarriageList.get(i);
+            String carriagesNumber = trainCarriageList.get(i);
             List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
+            int[][] actualSeats = CarriageSeatMap.TRAIN_BUSINESS_CLASS.toSeatLayout(listAvailableSeat);
+            int[] adjacentSeatIndexes = SeatSelection.adjacent(CarriageSeatMap.TRAIN_BUSINESS_CLASS, passengersNumber, actualSeats);
+            if (adjacentSeatIndexes != null) {
+                List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>(passengersNumber);
+                assignSeats(CarriageSeatMap.TRAIN_BUSINESS_CLASS, carriagesNumber, adjacentSeatIndexes, passengersNumber, passengerSeatDetails, 0, actualResult);
+                return actualResult;
             }
-            int[][] select = SeatSelection.adjacent(passengerSeatDetails.size(), actualSeats);
-            if (select != null) {
-                carriagesNumberSeatsMap.put(carriagesNumber, select);
-                break;
-            }
-            int demotionStockNum = 0;
-            for (int[] actualSeat : actualSeats) {
-                for (int i1 : actualSeat) {
-                    if (i1 == 0) {
-                        demotionStockNum++;
-                    }
-                }
-            }
-            demotionStockNumMap.putIfAbsent(carriagesNumber, demotionStockNum);
-            actualSeatsMap.putIfAbsent(carriagesNumber, actualSeats);
-            if (i < trainStationCarriageRemainingTicket.size() - 1) {
-                continue;
-            }
-            // 如果邻座算法无法匹配，尝试对用户进行降级分配：同车厢不邻座
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                if (demotionStockNumBack > passengerSeatDetails.size()) {
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(passengerSeatDetails.size(), seats);
-                    if (Objects.equals(nonAdjacentSeats.length, passengerSeatDetails.size())) {
-                        select = nonAdjacentSeats;
-                        carriagesNumberSeatsMap.put(carriagesNumberBack, select);
-                        break;
-                    }
-                }
-            }
-            // 如果同车厢也已无法匹配，则对用户座位再次降级：不同车厢不邻座
-            if (Objects.isNull(select)) {
-                for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                    String carriagesNumberBack = entry.getKey();
-                    int demotionStockNumBack = entry.getValue();
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(demotionStockNumBack, seats);
-                    carriagesNumberSeatsMap.put(entry.getKey(), nonAdjacentSeats);
-                }
-            }
-        }
-        // 乘车人员在单一车厢座位不满足，触发乘车人元分布在不同车厢
-        int count = (int) carriagesNumberSeatsMap.values().stream()
-                .flatMap(Arrays::stream)
-                .count();
-        if (CollUtil.isNotEmpty(carriagesNumberSeatsMap) && passengerSeatDetails.size() == count) {
-            int countNum = 0;
-            for (Map.Entry<String, int[][]> entry : carriagesNumberSeatsMap.entrySet()) {
-                List<String> selectSeats = new ArrayList<>();
-                for (int[] ints : entry.getValue()) {
-                    selectSeats.add("0" + ints[0] + SeatNumberUtil.convert(0, ints[1]));
-                }
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengerSeatDetails.get(countNum++);
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(entry.getKey());
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
-                }
+            int[] vacantSeatIndexes = CarriageSeatMap.TRAIN_BUSINESS_CLASS.vacantSeatIndexes(actualSeats);
+            if (vacantSeatIndexes.length > 0) {
+                carriagesVacantSeatMap.put(carriagesNumber, vacantSeatIndexes);
             }
         }
-        return actualResult;
+        // 如果邻座算法无法匹配，对用户进行降级分配：优先同车厢不邻座，其次不同车厢不邻座
+        return assignVacantSeats(CarriageSeatMap.TRAIN_BUSINESS_CLASS, carriagesVacantSeatMap, passengerSeatDetails);
     }
 
     private List<TrainPurchaseTicketRespDTO> selectComplexSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
@@ -356,121 +179,37 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
         String departure = requestParam.getRequestParam().getDeparture();
         String arrival = requestParam.getRequestParam().getArrival();
         List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-        List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>();
-        Map<String, Integer> demotionStockNumMap = new LinkedHashMap<>();
-        Map<String, int[][]> actualSeatsMap = new HashMap<>();
-        Map<String, int[][]> carriagesNumberSeatsMap = new HashMap<>();
-        String carriagesNumber;
-        // 多人分配同一车厢邻座
+        int passengersNumber = passengerSeatDetails.size();
+        Map<String, int[]> carriagesVacantSeatMap = new LinkedHashMap<>();
+        // 多人按 2 人一组分配同一车厢邻座
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
-            carriagesNumber = trainCarriageList.get(i);
+            String carriagesNumber = trainCarriageList.get(i);
             List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
-            }
-            int[][] actualSeatsTranscript = deepCopy(actualSeats);
-            List<int[][]> actualSelects = new ArrayList<>();
-            List<List<PurchaseTicketPassengerDetailDTO>> splitPassengerSeatDetails = ListUtil.split(passengerSeatDetails, 2);
-            for (List<PurchaseTicketPassengerDetailDTO> each : splitPassengerSeatDetails) {
-                int[][] select = SeatSelection.adjacent(each.size(), actualSeatsTranscript);
-                if (select != null) {
-                    for (int[] ints : select) {
-                        actualSeatsTranscript[ints[0] - 1][ints[1] - 1] = 1;
-                    }
-                    actualSelects.add(select);
-                }
-            }
-            if (actualSelects.size() == splitPassengerSeatDetails.size()) {
-                int[][] actualSelect = null;
-                for (int j = 0; j < actualSelects.size(); j++) {
-                    if (j == 0) {
-                        actualSelect = mergeArrays(actualSelects.get(j), actualSelects.get(j + 1));
-                    }
-                    if (j != 0 && actualSelects.size() > 2) {
-                        actualSelect = mergeArrays(actualSelect, actualSelects.get(j + 1));
-                    }
-                }
-                carriagesNumberSeatsMap.put(carriagesNumber, actualSelect);
-                break;
-            }
-            int demotionStockNum = 0;
-            for (int[] actualSeat : actualSeats) {
-                for (int i1 : actualSeat) {
-                    if (i1 == 0) {
-                        demotionStockNum++;
-                    }
+            int[][] actualSeats = CarriageSeatMap.TRAIN_BUSINESS_CLASS.toSeatLayout(listAvailableSeat);
+            int[] vacantSeatIndexes = CarriageSeatMap.TRAIN_BUSINESS_CLASS.vacantSeatIndexes(actualSeats);
+            int[] sureSeatIndexes = new int[passengersNumber];
+            int sureSeatCount = 0;
+            while (sureSeatCount < passengersNumber) {
+                int groupSize = Math.min(ADJACENT_GROUP_SIZE, passengersNumber - sureSeatCount);
+                int[] adjacentSeatIndexes = SeatSelection.adjacent(CarriageSeatMap.TRAIN_BUSINESS_CLASS, groupSize, actualSeats);
+                if (adjacentSeatIndexes == null) {
+                    break;
                 }
-            }
-            demotionStockNumMap.putIfAbsent(carriagesNumber, demotionStockNum);
-            actualSeatsMap.putIfAbsent(carriagesNumber, actualSeats);
-        }
-        // 如果邻座算法无法匹配，尝试对用户进行降级分配：同车厢不邻座
-        if (CollUtil.isEmpty(carriagesNumberSeatsMap)) {
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                if (demotionStockNumBack > passengerSeatDetails.size()) {
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(passengerSeatDetails.size(), seats);
-                    if (Objects.equals(nonAdjacentSeats.length, passengerSeatDetails.size())) {
-                        carriagesNumberSeatsMap.put(carriagesNumberBack, nonAdjacentSeats);
-                        break;
-                    }
+                for (int seatIndex : adjacentSeatIndexes) {
+                    CarriageSeatMap.TRAIN_BUSINESS_CLASS.occupy(actualSeats, seatIndex);
+                    sureSeatIndexes[sureSeatCount++] = seatIndex;
                 }
             }
-        }
-        // 如果同车厢也已无法匹配，则对用户座位再次降级：不同车厢不邻座
-        if (CollUtil.isEmpty(carriagesNumberSeatsMap)) {
-            int undistributedPassengerSize = passengerSeatDetails.size();
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(Math.min(undistributedPassengerSize, demotionStockNumBack), seats);
-                undistributedPassengerSize = undistributedPassengerSize - demotionStockNumBack;
-                carriagesNumberSeatsMap.put(entry.getKey(), nonAdjacentSeats);
+            if (sureSeatCount == passengersNumber) {
+                List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>(passengersNumber);
+                assignSeats(CarriageSeatMap.TRAIN_BUSINESS_CLASS, carriagesNumber, sureSeatIndexes, sureSeatCount, passengerSeatDetails, 0, actualResult);
+                return actualResult;
             }
-        }
-        // 乘车人员在单一车厢座位不满足，触发乘车人元分布在不同车厢
-        int count = (int) carriagesNumberSeatsMap.values().stream()
-                .flatMap(Arrays::stream)
-                .count();
-        if (CollUtil.isNotEmpty(carriagesNumberSeatsMap) && passengerSeatDetails.size() == count) {
-            int countNum = 0;
-            for (Map.Entry<String, int[][]> entry : carriagesNumberSeatsMap.entrySet()) {
-                List<String> selectSeats = new ArrayList<>();
-                for (int[] ints : entry.getValue()) {
-                    selectSeats.add("0" + ints[0] + SeatNumberUtil.convert(0, ints[1]));
-                }
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengerSeatDetails.get(countNum++);
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(entry.getKey());
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
-                }
+            if (vacantSeatIndexes.length > 0) {
+                carriagesVacantSeatMap.put(carriagesNumber, vacantSeatIndexes);
             }
         }
-        return actualResult;
-    }
-
-    public static int[][] mergeArrays(int[][] array1, int[][] array2) {
-        List<int[]> list = new ArrayList<>(Arrays.asList(array1));
-        list.addAll(Arrays.asList(array2));
-        return list.toArray(new int[0][]);
-    }
-
-    public static int[][] deepCopy(int[][] originalArray) {
-        int[][] copy = new int[originalArray.length][originalArray[0].length];
-        for (int i = 0; i < originalArray.length; i++) {
-            System.arraycopy(originalArray[i], 0, copy[i], 0, originalArray[i].length);
-        }
-        return copy;
+        // 如果邻座算法无法匹配，对用户进行降级分配：优先同车厢不邻座，其次不同车厢不邻座
+        return assignVacantSeats(CarriageSeatMap.TRAIN_BUSINESS_CLASS, carriagesVacantSeatMap, passengerSeatDetails);
     }
-}
\ No newline at end of file
+}
@@ -18,9 +18,6 @@
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.collection.ListUtil;
-import cn.hutool.core.lang.Pair;
-import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
@@ -30,20 +27,17 @@ import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base.AbstractTrainPurchaseTicketTemplate;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.CarriageSeatMap;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
-import org.opengoofy.index12306.biz.ticketservice.toolkit.SeatNumberUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 高铁一等座购票组件
@@ -56,7 +50,12 @@ public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseT
 
     private final SeatService seatService;
 
-    private static final Map<Character, Integer> SEAT_Y_INT = Map.of('A', 0, 'C', 1, 'D', 2, 'F', 3);
+    private static final int[] EMPTY_SEAT_INDEXES = new int[0];
+
+    /**
+     * 多人购票时按组分配邻座的每组人数
+     */
+    private static final int ADJACENT_GROUP_SIZE = 2;
 
     @Override
     public String mark() {
@@ -77,183 +76,94 @@ public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseT
         }
         if (passengerSeatDetails.size() < 5) {
             if (CollUtil.isNotEmpty(requestParam.getRequestParam().getChooseSeats())) {
-                return findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket).getKey();
+                return findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
             }
             return selectSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
         } else {
             if (CollUtil.isNotEmpty(requestParam.getRequestParam().getChooseSeats())) {
-                return findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket).getKey();
+                return findMatchSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
             }
             return selectComplexSeats(requestParam, trainCarriageList, trainStationCarriageRemainingTicket);
         }
     }
 
-    private List<Pair<Integer, Integer>> calcChooseSeatLevelPairList(int[][] actualSeats, List<String> chooseSeatList) {
+    private int[] calcChooseSeatIndexes(int[][] actualSeats, List<String> chooseSeatList) {
+        int chooseSeatSize = chooseSeatList.size();
         String firstChooseSeat = chooseSeatList.get(0);
         int firstSeatX = Integer.parseInt(firstChooseSeat.substring(1));
-        int firstSeatY = SEAT_Y_INT.get(firstChooseSeat.charAt(0));
-        List<Pair<Integer, Integer>> chooseSeatLevelPairList = new ArrayList<>();
-        chooseSeatLevelPairList.add(new Pair<>(firstSeatX, firstSeatY));
+        int firstSeatY = CarriageSeatMap.TRAIN_FIRST_CLASS.columnIndex(firstChooseSeat.charAt(0));
+        int[] chooseSeatLevelX = new int[chooseSeatSize];
+        int[] chooseSeatLevelY = new int[chooseSeatSize];
         int minLevelX = 0;
-        for (int i = 1; i < chooseSeatList.size(); i++) {
+        for (int i = 1; i < chooseSeatSize; i++) {
             String chooseSeat = chooseSeatList.get(i);
-            int chooseSeatX = Integer.parseInt(chooseSeat.substring(1));
-            int chooseSeatY = SEAT_Y_INT.get(chooseSeat.charAt(0));
-            minLevelX = Math.min(minLevelX, chooseSeatX - firstSeatX);
-            chooseSeatLevelPairList.add(new Pair<>(chooseSeatX - firstSeatX, chooseSeatY - firstSeatY));
+            chooseSeatLevelX[i] = Integer.parseInt(chooseSeat.substring(1)) - firstSeatX;
+            chooseSeatLevelY[i] = CarriageSeatMap.TRAIN_FIRST_CLASS.columnIndex(chooseSeat.charAt(0)) - firstSeatY;
+            minLevelX = Math.min(minLevelX, chooseSeatLevelX[i]);
         }
-        for (int i = Math.abs(minLevelX); i < 7; i++) {
-            List<Pair<Integer, Integer>> sureSeatList = new ArrayList<>();
-            if (actualSeats[i][firstSeatY] == 0) {
-                sureSeatList.add(new Pair<>(i, firstSeatY));
-                for (int j = 1; j < chooseSeatList.size(); j++) {
-                    Pair<Integer, Integer> pair = chooseSeatLevelPairList.get(j);
-                    int chooseSeatX = pair.getKey();
-                    int chooseSeatY = pair.getValue();
-                    int x = i + chooseSeatX;
-                    if (x >= 7) {
-                        return Collections.emptyList();
-                    }
-                    if (actualSeats[i + chooseSeatX][firstSeatY + chooseSeatY] == 0) {
-                        sureSeatList.add(new Pair<>(i + chooseSeatX, firstSeatY + chooseSeatY));
-                    } else {
-                        break;
-                    }
+        int rows = CarriageSeatMap.TRAIN_FIRST_CLASS.getRows();
+        int[] sureSeatIndexes = new int[chooseSeatSize];
+        for (int i = Math.abs(minLevelX); i < rows; i++) {
+            if (actualSeats[i][firstSeatY] != 0) {
+                continue;
+            }
+            int sureSeatCount = 0;
+            sureSeatIndexes[sureSeatCount++] = CarriageSeatMap.TRAIN_FIRST_CLASS.seatIndex(i, firstSeatY);
+            for (int j = 1; j < chooseSeatSize; j++) {
+                int x = i + chooseSeatLevelX[j];
+                if (x >= rows) {
+                    return EMPTY_SEAT_INDEXES;
+                }
+                int y = firstSeatY + chooseSeatLevelY[j];
+                if (actualSeats[x][y] != 0) {
+                    break;
                 }
+                sureSeatIndexes[sureSeatCount++] = CarriageSeatMap.TRAIN_FIRST_CLASS.seatIndex(x, y);
             }
-            if (sureSeatList.size() == chooseSeatList.size()) {
-                return sureSeatList;
+            if (sureSeatCount == chooseSeatSize) {
+                return sureSeatIndexes;
             }
         }
-        return Collections.emptyList();
+        return EMPTY_SEAT_INDEXES;
     }
 
-    private Pair<List<TrainPurchaseTicketRespDTO>, Boolean> findMatchSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
+    private List<TrainPurchaseTicketRespDTO> findMatchSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
         TrainSeatBaseDTO trainSeatBaseDTO = buildTrainSeatBaseDTO(requestParam);
-        List<TrainPurchaseTicketRespDTO> actualResult = Lists.newArrayListWithCapacity(trainSeatBaseDTO.getPassengerSeatDetails().size());
-        HashMap<String, List<Pair<Integer, Integer>>> carriagesSeatMap = new HashMap<>(8);
-        int passengersNumber = trainSeatBaseDTO.getPassengerSeatDetails().size();
+        List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = trainSeatBaseDTO.getPassengerSeatDetails();
+        int passengersNumber = passengerSeatDetails.size();
+        Map<String, int[]> carriagesSeatMap = new HashMap<>(8);
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             String carriagesNumber = trainCarriageList.get(i);
             List<String> listAvailableSeat = seatService.listAvailableSeat(trainSeatBaseDTO.getTrainId(), carriagesNumber, requestParam.getSeatType(), trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
-            int[][] actualSeats = new int[7][4];
-            List<Pair<Integer, Integer>> carriagesVacantSeat = new ArrayList<>();
-            for (int j = 1; j < 8; j++) {
-                for (int k = 1; k < 5; k++) {
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(1, k)) ? 0 : 1;
-                    if (actualSeats[j - 1][k - 1] == 0) {
-                        carriagesVacantSeat.add(new Pair<>(j - 1, k - 1));
+            int[][] actualSeats = CarriageSeatMap.TRAIN_FIRST_CLASS.toSeatLayout(listAvailableSeat);
+            int[] carriagesVacantSeat = CarriageSeatMap.TRAIN_FIRST_CLASS.vacantSeatIndexes(actualSeats);
+            int[] chooseSeatIndexes = calcChooseSeatIndexes(actualSeats, trainSeatBaseDTO.getChooseSeatList());
+            if (chooseSeatIndexes.length > 0 && carriagesVacantSeat.length >= passengersNumber) {
+                int[] sureSeatIndexes = new int[passengersNumber];
+                int sureSeatCount = Math.min(chooseSeatIndexes.length, passengersNumber);
+                System.arraycopy(chooseSeatIndexes, 0, sureSeatIndexes, 0, sureSeatCount);
+                if (sureSeatCount < passengersNumber) {
+                    for (int j = 0; j < sureSeatCount; j++) {
+                        CarriageSeatMap.TRAIN_FIRST_CLASS.occupy(actualSeats, sureSeatIndexes[j]);
                     }
-                }
-            }
-            List<String> selectSeats = new ArrayList<>(passengersNumber);
-            List<Pair<Integer, Integer>> sureSeatList = calcChooseSeatLevelPairList(actualSeats, trainSeatBaseDTO.getChooseSeatList());
-            if (CollUtil.isNotEmpty(sureSeatList) && carriagesVacantSeat.size() >= passengersNumber) {
-                List<Pair<Integer, Integer>> vacantSeatList = new ArrayList<>();
-                if (sureSeatList.size() != passengersNumber) {
-                    for (int i1 = 0; i1 < sureSeatList.size(); i1++) {
-                        Pair<Integer, Integer> pair = sureSeatList.get(i1);
-                        actualSeats[pair.getKey()][pair.getValue()] = 1;
-                    }
-                    for (int i1 = 0; i1 < 7; i1++) {
-                        for (int j = 0; j < 4; j++) {
-                            if (actualSeats[i1][j] == 0) {
-                                vacantSeatList.add(new Pair<>(i1, j));
-                            }
+                    for (int j = 0; j < carriagesVacantSeat.length && sureSeatCount < passengersNumber; j++) {
+                        if (CarriageSeatMap.TRAIN_FIRST_CLASS.isVacant(actualSeats, carriagesVacantSeat[j])) {
+                            sureSeatIndexes[sureSeatCount++] = carriagesVacantSeat[j];
                         }
                     }
-                    int needSeatSize = passengersNumber - sureSeatList.size();
-                    sureSeatList.addAll(vacantSeatList.subList(0, needSeatSize));
-                }
-                for (Pair<Integer, Integer> each : sureSeatList) {
-                    selectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(1, each.getValue() + 1));
                 }
-                AtomicInteger countNum = new AtomicInteger(0);
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(carriagesNumber);
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
-                }
-                return new Pair<>(actualResult, Boolean.TRUE);
-            } else {
-                if (CollUtil.isNotEmpty(carriagesVacantSeat)) {
-                    carriagesSeatMap.put(carriagesNumber, carriagesVacantSeat);
-                    if (i == trainStationCarriageRemainingTicket.size() - 1) {
-                        Pair<String, List<Pair<Integer, Integer>>> findSureCarriageSeat = null;
-                        for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
-                            if (entry.getValue().size() >= passengersNumber) {
-                                findSureCarriageSeat = new Pair<>(entry.getKey(), entry.getValue().subList(0, passengersNumber));
-                                break;
-                            }
-                        }
-                        if (findSureCarriageSeat != null) {
-                            for (Pair<Integer, Integer> each : findSureCarriageSeat.getValue()) {
-                                selectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(1, (each.getValue() + 1)));
-                            }
-                            AtomicInteger countNum = new AtomicInteger(0);
-                            for (String selectSeat : selectSeats) {
-                                TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                result.setSeatNumber(selectSeat);
-                                result.setSeatType(currentTicketPassenger.getSeatType());
-                                result.setCarriageNumber(findSureCarriageSeat.getKey());
-                                result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                actualResult.add(result);
-                            }
-                            return new Pair<>(actualResult, Boolean.TRUE);
-                        } else {
-                            int sureSeatListSize = 0;
-                            AtomicInteger countNum = new AtomicInteger(0);
-                            for (Map.Entry<String, List<Pair<Integer, Integer>>> entry : carriagesSeatMap.entrySet()) {
-                                if (sureSeatListSize < passengersNumber) {
-                                    if (sureSeatListSize + entry.getValue().size() < passengersNumber) {
-                                        sureSeatListSize = sureSeatListSize + entry.getValue().size();
-                                        List<String> actualSelectSeats = new ArrayList<>();
-                                        for (Pair<Integer, Integer> each : entry.getValue()) {
-                                            actualSelectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(1, each.getValue() + 1));
-                                        }
-                                        for (String selectSeat : actualSelectSeats) {
-                                            TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                            PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                            result.setSeatNumber(selectSeat);
-                                            result.setSeatType(currentTicketPassenger.getSeatType());
-                                            result.setCarriageNumber(entry.getKey());
-                                            result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                            actualResult.add(result);
-                                        }
-                                    } else {
-                                        int needSeatSize = entry.getValue().size() - (sureSeatListSize + entry.getValue().size() - passengersNumber);
-                                        sureSeatListSize = sureSeatListSize + needSeatSize;
-                                        if (sureSeatListSize >= passengersNumber) {
-                                            List<String> actualSelectSeats = new ArrayList<>();
-                                            for (Pair<Integer, Integer> each : entry.getValue().subList(0, needSeatSize)) {
-                                                actualSelectSeats.add("0" + (each.getKey() + 1) + SeatNumberUtil.convert(1, each.getValue() + 1));
-                                            }
-                                            for (String selectSeat : actualSelectSeats) {
-                                                TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                                                PurchaseTicketPassengerDetailDTO currentTicketPassenger = trainSeatBaseDTO.getPassengerSeatDetails().get(countNum.getAndIncrement());
-                                                result.setSeatNumber(selectSeat);
-                                                result.setSeatType(currentTicketPassenger.getSeatType());
-                                                result.setCarriageNumber(entry.getKey());
-                                                result.setPassengerId(currentTicketPassenger.getPassengerId());
-                                                actualResult.add(result);
-                                            }
-                                            break;
-                                        }
-                                    }
-                                }
-                            }
-                            return new Pair<>(actualResult, Boolean.TRUE);
-                        }
-                    }
+                List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>(passengersNumber);
+                assignSeats(CarriageSeatMap.TRAIN_FIRST_CLASS, carriagesNumber, sureSeatIndexes, sureSeatCount, passengerSeatDetails, 0, actualResult);
+                return actualResult;
+            }
+            if (carriagesVacantSeat.length > 0) {
+                carriagesSeatMap.put(carriagesNumber, carriagesVacantSeat);
+                if (i == trainStationCarriageRemainingTicket.size() - 1) {
+                    return assignVacantSeats(CarriageSeatMap.TRAIN_FIRST_CLASS, carriagesSeatMap, passengerSeatDetails);
                 }
             }
         }
-        return new Pair<>(null, Boolean.FALSE);
+        return Collections.emptyList();
     }
 
     private List<TrainPurchaseTicketRespDTO> selectSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
@@ -261,87 +171,25 @@ public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseT
         String departure = requestParam.getRequestParam().getDeparture();
         String arrival = requestParam.getRequestParam().getArrival();
         List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-        List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>();
-        Map<String, Integer> demotionStockNumMap = new LinkedHashMap<>();
-        Map<String, int[][]> actualSeatsMap = new HashMap<>();
-        Map<String, int[][]> carriagesNumberSeatsMap = new HashMap<>();
-        String carriagesNumber;
+        int passengersNumber = passengerSeatDetails.size();
+        Map<String, int[]> carriagesVacantSeatMap = new LinkedHashMap<>();
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
-            carriagesNumber = trainCarriageList.get(i);
+            String carriagesNumber = trainCarriageList.get(i);
             List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[7][4];
-            for (int j = 1; j < 8; j++) {
-                for (int k = 1; k < 5; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(1, k)) ? 0 : 1;
-                }
-            }
-            int[][] select = SeatSelection.adjacent(passengerSeatDetails.size(), actualSeats);
-            if (select != null) {
-                carriagesNumberSeatsMap.put(carriagesNumber, select);
-                break;
-            }
-            int demotionStockNum = 0;
-            for (int[] actualSeat : actualSeats) {
-                for (int i1 : actualSeat) {
-                    if (i1 == 0) {
-                        demotionStockNum++;
-                    }
-                }
-            }
-            demotionStockNumMap.putIfAbsent(carriagesNumber, demotionStockNum);
-            actualSeatsMap.putIfAbsent(carriagesNumber, actualSeats);
-            if (i < trainStationCarriageRemainingTicket.size() - 1) {
-                continue;
-            }
-            // 如果邻座算法无法匹配，尝试对用户进行降级分配：同车厢不邻座
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                if (demotionStockNumBack > passengerSeatDetails.size()) {
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(passengerSeatDetails.size(), seats);
-                    if (Objects.equals(nonAdjacentSeats.length, passengerSeatDetails.size())) {
-                        select = nonAdjacentSeats;
-                        carriagesNumberSeatsMap.put(carriagesNumberBack, select);
-                        break;
-                    }
-                }
+            int[][] actualSeats = CarriageSeatMap.TRAIN_FIRST_CLASS.toSeatLayout(listAvailableSeat);
+            int[] adjacentSeatIndexes = SeatSelection.adjacent(CarriageSeatMap.TRAIN_FIRST_CLASS, passengersNumber, actualSeats);
+            if (adjacentSeatIndexes != null) {
+                List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>(passengersNumber);
+                assignSeats(CarriageSeatMap.TRAIN_FIRST_CLASS, carriagesNumber, adjacentSeatIndexes, passengersNumber, passengerSeatDetails, 0, actualResult);
+                return actualResult;
             }
-            // 如果同车厢也已无法匹配，则对用户座位再次降级：不同车厢不邻座
-            if (Objects.isNull(select)) {
-                for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                    String carriagesNumberBack = entry.getKey();
-                    int demotionStockNumBack = entry.getValue();
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(demotionStockNumBack, seats);
-                    carriagesNumberSeatsMap.put(entry.getKey(), nonAdjacentSeats);
-                }
+            int[] vacantSeatIndexes = CarriageSeatMap.TRAIN_FIRST_CLASS.vacantSeatIndexes(actualSeats);
+            if (vacantSeatIndexes.length > 0) {
+                carriagesVacantSeatMap.put(carriagesNumber, vacantSeatIndexes);
             }
         }
-        // 乘车人员在单一车厢座位不满足，触发乘车人元分布在不同车厢
-        int count = (int) carriagesNumberSeatsMap.values().stream()
-                .flatMap(Arrays::stream)
-                .count();
-        if (CollUtil.isNotEmpty(carriagesNumberSeatsMap) && passengerSeatDetails.size() == count) {
-            int countNum = 0;
-            for (Map.Entry<String, int[][]> entry : carriagesNumberSeatsMap.entrySet()) {
-                List<String> selectSeats = new ArrayList<>();
-                for (int[] ints : entry.getValue()) {
-                    selectSeats.add("0" + ints[0] + SeatNumberUtil.convert(1, ints[1]));
-                }
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengerSeatDetails.get(countNum++);
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(entry.getKey());
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
-                }
-            }
-        }
-        return actualResult;
+        // 如果邻座算法无法匹配，对用户进行降级分配：优先同车厢不邻座，其次不同车厢不邻座
+        return assignVacantSeats(CarriageSeatMap.TRAIN_FIRST_CLASS, carriagesVacantSeatMap, passengerSeatDetails);
     }
 
     private List<TrainPurchaseTicketRespDTO> selectComplexSeats(SelectSeatDTO requestParam, List<String> trainCarriageList, List<Integer> trainStationCarriageRemainingTicket) {
@@ -349,121 +197,37 @@ public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseT
         String departure = requestParam.getRequestParam().getDeparture();
         String arrival = requestParam.getRequestParam().getArrival();
         List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-        List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>();
-        Map<String, Integer> demotionStockNumMap = new LinkedHashMap<>();
-        Map<String, int[][]> actualSeatsMap = new HashMap<>();
-        Map<String, int[][]> carriagesNumberSeatsMap = new HashMap<>();
-        String carriagesNumber;
-        // 多人分配同一车厢邻座
+        int passengersNumber = passengerSeatDetails.size();
+        Map<String, int[]> carriagesVacantSeatMap = new LinkedHashMap<>();
+        // 多人按 2 人一组分配同一车厢邻座
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
-            carriagesNumber = trainCarriageList.get(i);
+            String carriagesNumber = trainCarriageList.get(i);
             List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[7][4];
-            for (int j = 1; j < 8; j++) {
-                for (int k = 1; k < 5; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(1, k)) ? 0 : 1;
-                }
-            }
-            int[][] actualSeatsTranscript = deepCopy(actualSeats);
-            List<int[][]> actualSelects = new ArrayList<>();
-            List<List<PurchaseTicketPassengerDetailDTO>> splitPassengerSeatDetails = ListUtil.split(passengerSeatDetails, 2);
-            for (List<PurchaseTicketPassengerDetailDTO> each : splitPassengerSeatDetails) {
-                int[][] select = SeatSelection.adjacent(each.size(), actualSeatsTranscript);
-                if (select != null) {
-                    for (int[] ints : select) {
-                        actualSeatsTranscript[ints[0] - 1][ints[1] - 1] = 1;
-                    }
-                    actualSelects.add(select);
-                }
-            }
-            if (actualSelects.size() == splitPassengerSeatDetails.size()) {
-                int[][] actualSelect = null;
-                for (int j = 0; j < actualSelects.size(); j++) {
-                    if (j == 0) {
-                        actualSelect = mergeArrays(actualSelects.get(j), actualSelects.get(j + 1));
-                    }
-                    if (j != 0 && actualSelects.size() > 2) {
-                        actualSelect = mergeArrays(actualSelect, actualSelects.get(j + 1));
-                    }
-                }
-                carriagesNumberSeatsMap.put(carriagesNumber, actualSelect);
-                break;
-            }
-            int demotionStockNum = 0;
-            for (int[] actualSeat : actualSeats) {
-                for (int i1 : actualSeat) {
-                    if (i1 == 0) {
-                        demotionStockNum++;
-                    }
+            int[][] actualSeats = CarriageSeatMap.TRAIN_FIRST_CLASS.toSeatLayout(listAvailableSeat);
+            int[] vacantSeatIndexes = CarriageSeatMap.TRAIN_FIRST_CLASS.vacantSeatIndexes(actualSeats);
+            int[] sureSeatIndexes = new int[passengersNumber];
+            int sureSeatCount = 0;
+            while (sureSeatCount < passengersNumber) {
+                int groupSize = Math.min(ADJACENT_GROUP_SIZE, passengersNumber - sureSeatCount);
+                int[] adjacentSeatIndexes = SeatSelection.adjacent(CarriageSeatMap.TRAIN_FIRST_CLASS, groupSize, actualSeats);
+                if (adjacentSeatIndexes == null) {
+                    break;
                 }
-            }
-            demotionStockNumMap.putIfAbsent(carriagesNumber, demotionStockNum);
-            actualSeatsMap.putIfAbsent(carriagesNumber, actualSeats);
-        }
-        // 如果邻座算法无法匹配，尝试对用户进行降级分配：同车厢不邻座
-        if (CollUtil.isEmpty(carriagesNumberSeatsMap)) {
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                if (demotionStockNumBack > passengerSeatDetails.size()) {
-                    int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                    int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(passengerSeatDetails.size(), seats);
-                    if (Objects.equals(nonAdjacentSeats.length, passengerSeatDetails.size())) {
-                        carriagesNumberSeatsMap.put(carriagesNumberBack, nonAdjacentSeats);
-                        break;
-                    }
+                for (int seatIndex : adjacentSeatIndexes) {
+                    CarriageSeatMap.TRAIN_FIRST_CLASS.occupy(actualSeats, seatIndex);
+                    sureSeatIndexes[sureSeatCount++] = seatIndex;
                 }
             }
-        }
-        // 如果同车厢也已无法匹配，则对用户座位再次降级：不同车厢不邻座
-        if (CollUtil.isEmpty(carriagesNumberSeatsMap)) {
-            int undistributedPassengerSize = passengerSeatDetails.size();
-            for (Map.Entry<String, Integer> entry : demotionStockNumMap.entrySet()) {
-                String carriagesNumberBack = entry.getKey();
-                int demotionStockNumBack = entry.getValue();
-                int[][] seats = actualSeatsMap.get(carriagesNumberBack);
-                int[][] nonAdjacentSeats = SeatSelection.nonAdjacent(Math.min(undistributedPassengerSize, demotionStockNumBack), seats);
-                undistributedPassengerSize = undistributedPassengerSize - demotionStockNumBack;
-                carriagesNumberSeatsMap.put(entry.getKey(), nonAdjacentSeats);
+            if (sureSeatCount == passengersNumber) {
+                List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>(passengersNumber);
+                assignSeats(CarriageSeatMap.TRAIN_FIRST_CLASS, carriagesNumber, sureSeatIndexes, sureSeatCount, passengerSeatDetails, 0, actualResult);
+                return actualResult;
             }
-        }
-        // 乘车人员在单一车厢座位不满足，触发乘车人元分布在不同车厢
-        int count = (int) carriagesNumberSeatsMap.values().stream()
-                .flatMap(Arrays::stream)
-                .count();
-        if (CollUtil.isNotEmpty(carriagesNumberSeatsMap) && passengerSeatDetails.size() == count) {
-            int countNum = 0;
-            for (Map.Entry<String, int[][]> entry : carriagesNumberSeatsMap.entrySet()) {
-                List<String> selectSeats = new ArrayList<>();
-                for (int[] ints : entry.getValue()) {
-                    selectSeats.add("0" + ints[0] + SeatNumberUtil.convert(1, ints[1]));
-                }
-                for (String selectSeat : selectSeats) {
-                    TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
-                    PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengerSeatDetails.get(countNum++);
-                    result.setSeatNumber(selectSeat);
-                    result.setSeatType(currentTicketPassenger.getSeatType());
-                    result.setCarriageNumber(entry.getKey());
-                    result.setPassengerId(currentTicketPassenger.getPassengerId());
-                    actualResult.add(result);
-                }
+            if (vacantSeatIndexes.length > 0) {
+                carriagesVacantSeatMap.put(carriagesNumber, vacantSeatIndexes);
             }
         }
-        return actualResult;
-    }
-
-    public static int[][] mergeArrays(int[][] array1, int[][] array2) {
-        List<int[]> list = new ArrayList<>(Arrays.asList(array1));
-        list.addAll(Arrays.asList(array2));
-        return list.toArray(new int[0][]);
-    }
-
-    public static int[][] deepCopy(int[][] originalArray) {
-        int[][] copy = new int[originalArray.length][originalArray[0].length];
-        for (int i = 0; i < originalArray.length; i++) {
-            System.arraycopy(originalArray[i], 0, copy[i], 0, originalArray[i].length);
-        }
-        return copy;
+        // 如果邻座算法无法匹配，对用户进行降级分配：优先同车厢不邻座，其次不同车厢不邻座
+        return assignVacantSeats(CarriageSeatMap.TRAIN_FIRST_CLASS, carriagesVacantSeatMap, passengerSeatDetails);
     }
 }
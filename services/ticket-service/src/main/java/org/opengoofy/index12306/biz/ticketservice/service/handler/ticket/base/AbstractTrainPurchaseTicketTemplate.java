@@ -19,21 +19,23 @@ package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.TrainSeatBaseDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRemainingTicketCacheUpdater;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.CarriageSeatMap;
 import org.opengoofy.index12306.framework.starter.bases.ApplicationContextHolder;
-import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 import org.opengoofy.index12306.framework.starter.designpattern.strategy.AbstractExecuteStrategy;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.env.ConfigurableEnvironment;
-import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-
-import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
+import java.util.Map;
 
 /**
  * 抽象高铁购票模板基础服务
@@ -42,7 +44,7 @@ import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKe
  */
 public abstract class AbstractTrainPurchaseTicketTemplate implements IPurchaseTicket, CommandLineRunner, AbstractExecuteStrategy<SelectSeatDTO, List<TrainPurchaseTicketRespDTO>> {
 
-    private DistributedCache distributedCache;
+    private TrainStationRemainingTicketCacheUpdater trainStationRemainingTicketCacheUpdater;
     private String ticketAvailabilityCacheUpdateType;
     private TrainStationService trainStationService;
 
@@ -64,6 +66,62 @@ public abstract class AbstractTrainPurchaseTicketTemplate implements IPurchaseTi
                 .build();
     }
 
+    /**
+     * 按座位下标依次为乘车人分配座位
+     *
+     * @param seatMap          车厢座位图编解码
+     * @param carriageNumber   车厢号
+     * @param seatIndexes      座位下标数组
+     * @param seatCount        本次分配座位数量
+     * @param passengers       乘车人集合
+     * @param passengerOffset  本次分配的首个乘车人下标
+     * @param actualResult     乘车人座位分配结果
+     * @return 下一个待分配座位的乘车人下标
+     */
+    protected int assignSeats(CarriageSeatMap seatMap, String carriageNumber, int[] seatIndexes, int seatCount,
+                              List<PurchaseTicketPassengerDetailDTO> passengers, int passengerOffset, List<TrainPurchaseTicketRespDTO> actualResult) {
+        for (int i = 0; i < seatCount; i++) {
+            PurchaseTicketPassengerDetailDTO currentTicketPassenger = passengers.get(passengerOffset++);
+            TrainPurchaseTicketRespDTO result = new TrainPurchaseTicketRespDTO();
+            result.setSeatNumber(seatMap.seatNumber(seatIndexes[i]));
+            result.setSeatType(currentTicketPassenger.getSeatType());
+            result.setCarriageNumber(carriageNumber);
+            result.setPassengerId(currentTicketPassenger.getPassengerId());
+            actualResult.add(result);
+        }
+        return passengerOffset;
+    }
+
+    /**
+     * 选座无法满足时按车厢空余座位分配：优先单一车厢容纳全部乘车人，否则依次分布在不同车厢
+     * 全部车厢空余座位仍不足以容纳所有乘车人时返回空集合，不做部分分配
+     *
+     * @param seatMap                车厢座位图编解码
+     * @param carriagesVacantSeatMap 车厢号与空余座位下标映射
+     * @param passengers             乘车人集合
+     * @return 乘车人座位分配结果
+     */
+    protected List<TrainPurchaseTicketRespDTO> assignVacantSeats(CarriageSeatMap seatMap, Map<String, int[]> carriagesVacantSeatMap,
+                                                                 List<PurchaseTicketPassengerDetailDTO> passengers) {
+        int passengersNumber = passengers.size();
+        List<TrainPurchaseTicketRespDTO> actualResult = new ArrayList<>(passengersNumber);
+        for (Map.Entry<String, int[]> entry : carriagesVacantSeatMap.entrySet()) {
+            if (entry.getValue().length >= passengersNumber) {
+                assignSeats(seatMap, entry.getKey(), entry.getValue(), passengersNumber, passengers, 0, actualResult);
+                return actualResult;
+            }
+        }
+        int passengerOffset = 0;
+        for (Map.Entry<String, int[]> entry : carriagesVacantSeatMap.entrySet()) {
+            if (passengerOffset >= passengersNumber) {
+                break;
+            }
+            int seatCount = Math.min(entry.getValue().length, passengersNumber - passengerOffset);
+            passengerOffset = assignSeats(seatMap, entry.getKey(), entry.getValue(), seatCount, passengers, passengerOffset, actualResult);
+        }
+        return passengerOffset == passengersNumber ? actualResult : Collections.emptyList();
+    }
+
     @Override
     public List<TrainPurchaseTicketRespDTO> executeResp(SelectSeatDTO requestParam) {
         List<TrainPurchaseTicketRespDTO> actualResult = selectSeats(requestParam);
@@ -72,19 +130,15 @@ public abstract class AbstractTrainPurchaseTicketTemplate implements IPurchaseTi
             String trainId = requestParam.getRequestParam().getTrainId();
             String departure = requestParam.getRequestParam().getDeparture();
             String arrival = requestParam.getRequestParam().getArrival();
-            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
             List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-            routeDTOList.forEach(each -> {
-                String keySuffix = StrUtil.join("_", trainId, each.getStartStation(), each.getEndStation());
-                stringRedisTemplate.opsForHash().increment(TRAIN_STATION_REMAINING_TICKET + keySuffix, String.valueOf(requestParam.getSeatType()), -actualResult.size());
-            });
+            trainStationRemainingTicketCacheUpdater.increment(trainId, routeDTOList, Map.of(requestParam.getSeatType(), -actualResult.size()));
         }
         return actualResult;
     }
 
     @Override
     public void run(String... args) throws Exception {
-        distributedCache = ApplicationContextHolder.getBean(DistributedCache.class);
+        trainStationRemainingTicketCacheUpdater = ApplicationContextHolder.getBean(TrainStationRemainingTicketCacheUpdater.class);
         trainStationService = ApplicationContextHolder.getBean(TrainStationService.class);
         ConfigurableEnvironment configurableEnvironment = ApplicationContextHolder.getBean(ConfigurableEnvironment.class);
         ticketAvailabilityCacheUpdateType = configurableEnvironment.getProperty("ticket.availability.cache-update.type", "");
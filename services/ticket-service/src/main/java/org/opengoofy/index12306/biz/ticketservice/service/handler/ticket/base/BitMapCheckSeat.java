@@ -17,11 +17,11 @@
 
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base;
 
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.CarriageSeatMap;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 抽象的验证座位实体类
@@ -45,8 +45,8 @@ public interface BitMapCheckSeat {
      *
      * @param chooseSeatList 选择座位
      * @param actualSeats    座位状态数组
-     * @param SEAT_Y_INT     坐标转换 Map
+     * @param seatMap        车厢座位图编解码
      * @return
      */
-    boolean checkChooseSeat(List<String> chooseSeatList, int[][] actualSeats, Map<Character, Integer> SEAT_Y_INT);
+    boolean checkChooseSeat(List<String> chooseSeatList, int[][] actualSeats, CarriageSeatMap seatMap);
 }
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base;
+
+import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * 车厢座位状态位图快照
+ * 通过一次 GET 读取整节车厢的座位状态位图，后续按位偏移量在本地判断，避免逐位 GETBIT 产生多次网络往返
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+final class CarriageSeatStatusBitMap {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final byte[] bits;
+
+    private CarriageSeatStatusBitMap(byte[] bits) {
+        this.bits = bits == null ? EMPTY : bits;
+    }
+
+    /**
+     * 读取车厢座位状态位图
+     *
+     * @param key              缓存Key
+     * @param distributedCache 分布式缓存接口
+     * @return 车厢座位状态位图快照
+     */
+    @SuppressWarnings("unchecked")
+    static CarriageSeatStatusBitMap load(String key, DistributedCache distributedCache) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        // 使用模板的 Key 序列化器，保证与 GETBIT 等命令访问同一个带前缀的 Key
+        byte[] rawKey = ((RedisSerializer<String>) stringRedisTemplate.getKeySerializer()).serialize(key);
+        byte[] bits = stringRedisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        return new CarriageSeatStatusBitMap(bits);
+    }
+
+    /**
+     * 获取指定偏移量的位，语义与 Redis GETBIT 一致，超出位图长度的偏移量视为 0
+     *
+     * @param offset 位偏移量
+     * @return 位是否为 1
+     */
+    boolean getBit(int offset) {
+        int byteIndex = offset >>> 3;
+        if (byteIndex >= bits.length) {
+            return false;
+        }
+        return (bits[byteIndex] & (0x80 >>> (offset & 7))) != 0;
+    }
+}
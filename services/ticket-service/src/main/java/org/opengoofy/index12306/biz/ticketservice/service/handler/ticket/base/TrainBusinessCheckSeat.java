@@ -17,13 +17,11 @@
 
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.base;
 
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.CarriageSeatMap;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -44,14 +42,13 @@ public class TrainBusinessCheckSeat implements TrainBitMapCheckSeat {
     @Override
     public boolean checkSeat(final String key, HashMap<Integer, Integer> convert, DistributedCache distributedCache) {
         boolean flag = false;
-        ValueOperations<String, String> opsForValue = ((StringRedisTemplate) distributedCache.getInstance()).opsForValue();
+        CarriageSeatStatusBitMap seatStatusBitMap = CarriageSeatStatusBitMap.load(key, distributedCache);
         AtomicInteger matchCount = new AtomicInteger(0);
         for (int i = 0; i < 3; i++) {
             int cnt = 0;
             if (convert.containsKey(i)) {
                 for (int j = 0; j < 2; j++) {
-                    Boolean bit = opsForValue.getBit(key, i + j * 3);
-                    if (null != bit && bit) {
+                    if (seatStatusBitMap.getBit(i + j * 3)) {
                         cnt = cnt + 1;
                     }
                     if (cnt == convert.get(i)) {
@@ -76,24 +73,24 @@ public class TrainBusinessCheckSeat implements TrainBitMapCheckSeat {
      *
      * @param chooseSeatList 选择座位
      * @param actualSeats    座位状态数组
-     * @param SEAT_Y_INT     坐标转换 Map
+     * @param seatMap        车厢座位图编解码
      * @return
      */
     @Override
-    public boolean checkChooseSeat(List<String> chooseSeatList, int[][] actualSeats, Map<Character, Integer> SEAT_Y_INT) {
+    public boolean checkChooseSeat(List<String> chooseSeatList, int[][] actualSeats, CarriageSeatMap seatMap) {
         boolean isExists = true;
         for (int i = 0; i < chooseSeatList.size(); i++) {
             if (chooseSeatList.size() == 1) {
                 String chooseSeat = chooseSeatList.get(i);
                 int seatX = Integer.parseInt(chooseSeat.substring(1));
-                int seatY = SEAT_Y_INT.get(chooseSeat.charAt(0));
+                int seatY = seatMap.columnIndex(chooseSeat.charAt(0));
                 if (actualSeats[seatX][seatY] != 0 && actualSeats[1][seatY] != 0) {
                     break;
                 }
             } else {
                 String chooseSeat = chooseSeatList.get(i);
                 int seatX = Integer.parseInt(chooseSeat.substring(1));
-                int seatY = SEAT_Y_INT.get(chooseSeat.charAt(0));
+                int seatY = seatMap.columnIndex(chooseSeat.charAt(0));
                 if (actualSeats[seatX][seatY] != 0) {
                     isExists = false;
                     break;
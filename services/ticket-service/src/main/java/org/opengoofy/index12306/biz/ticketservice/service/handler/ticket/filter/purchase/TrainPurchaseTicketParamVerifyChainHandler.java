@@ -28,7 +28,7 @@ import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationMapper;
 import org.opengoofy.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
-import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.cache.MultistageCache;
 import org.opengoofy.index12306.framework.starter.common.toolkit.EnvironmentUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ClientException;
 import org.springframework.stereotype.Component;
@@ -54,12 +54,12 @@ public class TrainPurchaseTicketParamVerifyChainHandler implements TrainPurchase
 
     private final TrainMapper trainMapper;
     private final TrainStationMapper trainStationMapper;
-    private final DistributedCache distributedCache;
+    private final MultistageCache multistageCache;
 
     @Override
     public void handler(PurchaseTicketReqDTO requestParam) {
         // 查询会员购票车次是否存在，通过封装后安全的 Get 方法
-        TrainDO trainDO = distributedCache.safeGet(
+        TrainDO trainDO = multistageCache.get(
                 TRAIN_INFO + requestParam.getTrainId(),
                 TrainDO.class,
                 () -> trainMapper.selectById(requestParam.getTrainId()),
@@ -82,7 +82,7 @@ public class TrainPurchaseTicketParamVerifyChainHandler implements TrainPurchase
             }
         }
         // 车站是否存在车次中，以及车站的顺序是否正确
-        String trainStationStopoverDetailStr = distributedCache.safeGet(
+        String trainStationStopoverDetailStr = multistageCache.get(
                 TRAIN_STATION_STOPOVER_DETAIL + requestParam.getTrainId(),
                 String.class,
                 () -> {
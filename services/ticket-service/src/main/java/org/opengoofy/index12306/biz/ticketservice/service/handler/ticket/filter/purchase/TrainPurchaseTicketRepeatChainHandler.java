@@ -17,10 +17,16 @@
 
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.filter.purchase;
 
+import cn.hutool.core.collection.CollUtil;
 import lombok.RequiredArgsConstructor;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainPurchasedPassengerCache;
+import org.opengoofy.index12306.framework.starter.convention.exception.ClientException;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * 购票流程过滤器之验证乘客是否重复购买
  *
@@ -30,9 +36,21 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class TrainPurchaseTicketRepeatChainHandler implements TrainPurchaseTicketChainFilter<PurchaseTicketReqDTO> {
 
+    private final TrainPurchasedPassengerCache trainPurchasedPassengerCache;
+
     @Override
     public void handler(PurchaseTicketReqDTO requestParam) {
-        // TODO 重复购买验证后续实现
+        List<String> passengerIds = requestParam.getPassengers().stream()
+                .map(PurchaseTicketPassengerDetailDTO::getPassengerId)
+                .toList();
+        if (passengerIds.stream().distinct().count() != passengerIds.size()) {
+            throw new ClientException("乘车人重复，请勿重复选择乘车人");
+        }
+        // 加锁以及获取令牌之前原子预占乘车人，并发的重复请求只有一个能通过，购票失败由购票流程释放预占
+        List<String> purchasedPassengerIds = trainPurchasedPassengerCache.reserve(requestParam.getTrainId(), passengerIds);
+        if (CollUtil.isNotEmpty(purchasedPassengerIds)) {
+            throw new ClientException("乘车人已购买当前车次车票，请勿重复购买");
+        }
     }
 
     @Override
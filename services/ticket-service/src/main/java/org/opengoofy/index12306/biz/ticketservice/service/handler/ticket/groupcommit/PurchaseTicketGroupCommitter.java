@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.groupcommit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.opengoofy.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.resp.TicketPurchaseRespDTO;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.opengoofy.index12306.frameworks.starter.user.core.UserContext;
+import org.opengoofy.index12306.frameworks.starter.user.core.UserInfoDTO;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 购票组提交执行器
+ * 相同列车座位类型的购票请求进入同一队列，由抢到本地 Leader 锁的请求线程一次性获取分布式公平锁，在持锁期间依次结算整批请求
+ * 单批次同时受数量和耗时限制，避免 Leader 请求因替其它用户结算而被无限拉长响应时间，剩余请求由下一任 Leader 继续结算
+ * 批次仅用于摊薄分布式锁获取开销，每个请求在独立事务中提交并立即返回结果，单个请求失败不影响同批次其它请求
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@Slf4j
+@Component
+public class PurchaseTicketGroupCommitter {
+
+    private final RedissonClient redissonClient;
+    private final TransactionTemplate itemTransactionTemplate;
+
+    /**
+     * 单批次最大结算请求数量
+     */
+    @Value("${ticket.purchase.group-commit.max-batch-size:32}")
+    private int maxBatchSize;
+
+    /**
+     * 非 Leader 请求等待结果的轮询间隔，期间 Leader 释放后会尝试接替 Leader 继续结算
+     */
+    @Value("${ticket.purchase.group-commit.wait-millis:10}")
+    private long waitMillis;
+
+    /**
+     * 单批次最长结算耗时，超过后 Leader 停止拉取新请求并释放分布式锁
+     */
+    @Value("${ticket.purchase.group-commit.max-batch-millis:50}")
+    private long maxBatchMillis;
+
+    /**
+     * 长时间无请求的列车座位类型队列自动过期，避免队列随车次日期无限增长
+     * 已获取旧队列的请求仍在旧队列上竞争 Leader 并完成结算，不会丢失
+     */
+    private final Cache<String, GroupCommitQueue> groupCommitQueueMap = Caffeine.newBuilder()
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .maximumSize(100000L)
+            .build();
+
+    public PurchaseTicketGroupCommitter(RedissonClient redissonClient, PlatformTransactionManager transactionManager) {
+        this.redissonClient = redissonClient;
+        this.itemTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 提交购票请求并等待所在批次结算完成
+     *
+     * @param lockKey                列车座位类型分布式锁 Key，同时作为批次分组 Key
+     * @param requestParam           车票购买请求参数
+     * @param purchaseTicketExecutor 单个购票请求执行逻辑
+     * @return 当前请求的购票结果
+     */
+    public TicketPurchaseRespDTO submit(String lockKey, PurchaseTicketReqDTO requestParam,
+                                        Function<PurchaseTicketReqDTO, TicketPurchaseRespDTO> purchaseTicketExecutor) {
+        UserInfoDTO userInfo = UserInfoDTO.builder()
+                .userId(UserContext.getUserId())
+                .username(UserContext.getUsername())
+                .realName(UserContext.getRealName())
+                .token(UserContext.getToken())
+                .build();
+        PendingPurchase pendingPurchase = new PendingPurchase(requestParam, userInfo, purchaseTicketExecutor);
+        GroupCommitQueue groupCommitQueue = groupCommitQueueMap.get(lockKey, key -> new GroupCommitQueue());
+        groupCommitQueue.pendingQueue.offer(pendingPurchase);
+        while (!pendingPurchase.future.isDone()) {
+            if (groupCommitQueue.leaderLock.tryLock()) {
+                try {
+                    executeBatch(lockKey, groupCommitQueue, userInfo);
+                } finally {
+                    groupCommitQueue.leaderLock.unlock();
+                }
+            } else {
+                awaitQuietly(pendingPurchase.future);
+            }
+        }
+        return awaitResult(pendingPurchase.future);
+    }
+
+    private void executeBatch(String lockKey, GroupCommitQueue groupCommitQueue, UserInfoDTO leaderUserInfo) {
+        if (groupCommitQueue.pendingQueue.isEmpty()) {
+            return;
+        }
+        List<PendingPurchase> batch = new ArrayList<>(maxBatchSize);
+        RLock distributedLock = redissonClient.getFairLock(lockKey);
+        distributedLock.lock();
+        try {
+            // 持锁后逐个拉取请求，达到数量或耗时上限即停止，未拉取的请求留在队列中由下一任 Leader 结算
+            long deadline = System.currentTimeMillis() + maxBatchMillis;
+            PendingPurchase pendingPurchase;
+            while (batch.size() < maxBatchSize
+                    && System.currentTimeMillis() < deadline
+                    && (pendingPurchase = groupCommitQueue.pendingQueue.poll()) != null) {
+                batch.add(pendingPurchase);
+                executeItem(pendingPurchase);
+            }
+        } catch (Throwable ex) {
+            log.error("购票组提交批次执行失败，批次数量：{}", batch.size(), ex);
+            batch.forEach(each -> each.future.completeExceptionally(ex));
+        } finally {
+            UserContext.setUser(leaderUserInfo);
+            try {
+                distributedLock.unlock();
+            } catch (Throwable ex) {
+                log.error("购票组提交释放分布式锁失败，锁标识：{}，批次数量：{}", lockKey, batch.size(), ex);
+            }
+        }
+    }
+
+    private void executeItem(PendingPurchase pendingPurchase) {
+        UserContext.setUser(pendingPurchase.userInfo);
+        try {
+            // 每个请求独立提交事务，座位行锁仅在单个请求内持有，提交后立即唤醒对应请求线程
+            TicketPurchaseRespDTO result = itemTransactionTemplate.execute(status -> pendingPurchase.purchaseTicketExecutor.apply(pendingPurchase.requestParam));
+            pendingPurchase.future.complete(result);
+        } catch (Throwable ex) {
+            pendingPurchase.future.completeExceptionally(ex);
+        }
+    }
+
+    private void awaitQuietly(CompletableFuture<TicketPurchaseRespDTO> future) {
+        try {
+            future.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("购票请求等待被中断");
+        }
+    }
+
+    private TicketPurchaseRespDTO awaitResult(CompletableFuture<TicketPurchaseRespDTO> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("购票请求等待被中断");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ServiceException(cause.getMessage());
+        }
+    }
+
+    /**
+     * 列车座位类型维度的组提交队列
+     */
+    private static final class GroupCommitQueue {
+
+        private final ReentrantLock leaderLock = new ReentrantLock();
+
+        private final ConcurrentLinkedQueue<PendingPurchase> pendingQueue = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * 等待结算的购票请求
+     */
+    private static final class PendingPurchase {
+
+        private final PurchaseTicketReqDTO requestParam;
+
+        private final UserInfoDTO userInfo;
+
+        private final Function<PurchaseTicketReqDTO, TicketPurchaseRespDTO> purchaseTicketExecutor;
+
+        private final CompletableFuture<TicketPurchaseRespDTO> future = new CompletableFuture<>();
+
+        private PendingPurchase(PurchaseTicketReqDTO requestParam, UserInfoDTO userInfo,
+                                Function<PurchaseTicketReqDTO, TicketPurchaseRespDTO> purchaseTicketExecutor) {
+            this.requestParam = requestParam;
+            this.userInfo = userInfo;
+            this.purchaseTicketExecutor = purchaseTicketExecutor;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 车厢座位图编解码
+ * 座位号与行列下标直接换算，座位号字符串按车厢布局预先生成，选座过程中无需字符串拼接以及 {@link List#contains(Object)} 匹配
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+public final class CarriageSeatMap {
+
+    /**
+     * 复兴号-商务座，2 排 A、C、F
+     */
+    public static final CarriageSeatMap TRAIN_BUSINESS_CLASS = new CarriageSeatMap(2, "ACF");
+
+    /**
+     * 复兴号-一等座，7 排 A、C、D、F
+     */
+    public static final CarriageSeatMap TRAIN_FIRST_CLASS = new CarriageSeatMap(7, "ACDF");
+
+    /**
+     * 复兴号-二等座，18 排 A、B、C、D、F
+     */
+    public static final CarriageSeatMap TRAIN_SECOND_CLASS = new CarriageSeatMap(18, "ABCDF");
+
+    private final int rows;
+
+    private final int columns;
+
+    /**
+     * 座位号字母与列下标映射，不存在的字母为 -1
+     */
+    private final int[] columnIndexTable = new int[128];
+
+    /**
+     * 行列下标与座位号映射，下标为 行下标 * 列数 + 列下标
+     */
+    private final String[] seatNumbers;
+
+    private CarriageSeatMap(int rows, String columnLetters) {
+        this.rows = rows;
+        this.columns = columnLetters.length();
+        Arrays.fill(columnIndexTable, -1);
+        for (int i = 0; i < columns; i++) {
+            columnIndexTable[columnLetters.charAt(i)] = i;
+        }
+        this.seatNumbers = new String[rows * columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                seatNumbers[i * columns + j] = String.format("%02d%c", i + 1, columnLetters.charAt(j));
+            }
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * 根据可售座位号构建座位图，0 代表可售，1 代表不可售
+     *
+     * @param availableSeats 可售座位号集合
+     * @return 座位图，行下标为排数 - 1，列下标为座位字母顺序
+     */
+    public int[][] toSeatLayout(List<String> availableSeats) {
+        int[][] seatLayout = new int[rows][columns];
+        for (int[] each : seatLayout) {
+            Arrays.fill(each, 1);
+        }
+        for (String each : availableSeats) {
+            int seatIndex = seatIndex(each);
+            if (seatIndex >= 0) {
+                seatLayout[seatIndex / columns][seatIndex % columns] = 0;
+            }
+        }
+        return seatLayout;
+    }
+
+    /**
+     * 按行优先顺序收集座位图中的可售座位下标
+     *
+     * @param seatLayout 座位图，0 代表可售，1 代表不可售
+     * @return 可售座位下标数组，下标为 行下标 * 列数 + 列下标
+     */
+    public int[] vacantSeatIndexes(int[][] seatLayout) {
+        int vacantSeatCount = 0;
+        for (int[] each : seatLayout) {
+            for (int seatStatus : each) {
+                if (seatStatus == 0) {
+                    vacantSeatCount++;
+                }
+            }
+        }
+        int[] vacantSeatIndexes = new int[vacantSeatCount];
+        int index = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (seatLayout[i][j] == 0) {
+                    vacantSeatIndexes[index++] = i * columns + j;
+                }
+            }
+        }
+        return vacantSeatIndexes;
+    }
+
+    /**
+     * 判断座位下标在座位图中是否可售
+     *
+     * @param seatLayout 座位图，0 代表可售，1 代表不可售
+     * @param seatIndex  座位下标
+     * @return 是否可售
+     */
+    public boolean isVacant(int[][] seatLayout, int seatIndex) {
+        return seatLayout[seatIndex / columns][seatIndex % columns] == 0;
+    }
+
+    /**
+     * 将座位下标在座位图中标记为不可售
+     *
+     * @param seatLayout 座位图，0 代表可售，1 代表不可售
+     * @param seatIndex  座位下标
+     */
+    public void occupy(int[][] seatLayout, int seatIndex) {
+        seatLayout[seatIndex / columns][seatIndex % columns] = 1;
+    }
+
+    /**
+     * 行列下标转换座位下标
+     *
+     * @param rowIndex    行下标，从 0 开始
+     * @param columnIndex 列下标，从 0 开始
+     * @return 行下标 * 列数 + 列下标
+     */
+    public int seatIndex(int rowIndex, int columnIndex) {
+        return rowIndex * columns + columnIndex;
+    }
+
+    /**
+     * 座位下标转换座位号
+     *
+     * @param seatIndex 行下标 * 列数 + 列下标
+     * @return 座位号，例如 01A
+     */
+    public String seatNumber(int seatIndex) {
+        return seatNumbers[seatIndex];
+    }
+
+    /**
+     * 行列下标转换座位号
+     *
+     * @param rowIndex    行下标，从 0 开始
+     * @param columnIndex 列下标，从 0 开始
+     * @return 座位号，例如 01A
+     */
+    public String seatNumber(int rowIndex, int columnIndex) {
+        return seatNumbers[rowIndex * columns + columnIndex];
+    }
+
+    /**
+     * 座位号字母转换列下标
+     *
+     * @param columnLetter 座位号字母，例如 A
+     * @return 列下标，从 0 开始，字母不属于当前车厢布局返回 -1
+     */
+    public int columnIndex(char columnLetter) {
+        return columnLetter < columnIndexTable.length ? columnIndexTable[columnLetter] : -1;
+    }
+
+    /**
+     * 座位号转换座位下标
+     *
+     * @param seatNumber 座位号，例如 01A
+     * @return 行下标 * 列数 + 列下标，座位号不合法返回 -1
+     */
+    public int seatIndex(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2) {
+            return -1;
+        }
+        int lastIndex = seatNumber.length() - 1;
+        int columnIndex = columnIndex(seatNumber.charAt(lastIndex));
+        if (columnIndex < 0) {
+            return -1;
+        }
+        int row = 0;
+        for (int i = 0; i < lastIndex; i++) {
+            int digit = seatNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            row = row * 10 + digit;
+        }
+        if (row < 1 || row > rows) {
+            return -1;
+        }
+        return (row - 1) * columns + columnIndex;
+    }
+}
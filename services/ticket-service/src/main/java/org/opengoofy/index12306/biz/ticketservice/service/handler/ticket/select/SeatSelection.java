@@ -17,119 +17,69 @@
 
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select;
 
-import cn.hutool.core.collection.CollUtil;
-
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * 座位选择器
+ * 选座结果直接返回 {@link CarriageSeatMap} 座位下标，调用方通过 {@link CarriageSeatMap#seatNumber(int)} 换算座位号，选座过程中不创建行列坐标对象
  *
  * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
  */
-public class SeatSelection {
+public final class SeatSelection {
 
-    public static int[][] adjacent(int numSeats, int[][] seatLayout) {
-        int numRows = seatLayout.length;
-        int numCols = seatLayout[0].length;
-        List<int[]> selectedSeats = new ArrayList<>();
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numCols; j++) {
-                if (seatLayout[i][j] == 0) {
-                    int consecutiveSeats = 0;
-                    for (int k = j; k < numCols; k++) {
-                        if (seatLayout[i][k] == 0) {
-                            consecutiveSeats++;
-                            if (consecutiveSeats == numSeats) {
-                                for (int l = k - numSeats + 1; l <= k; l++) {
-                                    selectedSeats.add(new int[]{i, l});
-                                }
-                                break;
-                            }
-                        } else {
-                            consecutiveSeats = 0;
-                        }
-                    }
-                    if (!selectedSeats.isEmpty()) {
-                        break;
+    private SeatSelection() {
+    }
+
+    /**
+     * 按行优先顺序查找同一排连续的可售座位
+     *
+     * @param seatMap    车厢座位图编解码
+     * @param numSeats   座位数量
+     * @param seatLayout 座位图，0 代表可售，1 代表不可售
+     * @return 座位下标数组，不存在满足数量的连续座位返回 null
+     */
+    public static int[] adjacent(CarriageSeatMap seatMap, int numSeats, int[][] seatLayout) {
+        if (numSeats <= 0 || numSeats > seatMap.getColumns()) {
+            return null;
+        }
+        for (int i = 0; i < seatLayout.length; i++) {
+            int consecutiveSeats = 0;
+            for (int j = 0; j < seatLayout[i].length; j++) {
+                if (seatLayout[i][j] != 0) {
+                    consecutiveSeats = 0;
+                    continue;
+                }
+                if (++consecutiveSeats == numSeats) {
+                    int[] selectedSeatIndexes = new int[numSeats];
+                    int firstColumn = j - numSeats + 1;
+                    for (int k = 0; k < numSeats; k++) {
+                        selectedSeatIndexes[k] = seatMap.seatIndex(i, firstColumn + k);
                     }
+                    return selectedSeatIndexes;
                 }
             }
-            if (!selectedSeats.isEmpty()) {
-                break;
-            }
-        }
-        if (CollUtil.isEmpty(selectedSeats)) {
-            return null;
         }
-        int[][] actualSeat = new int[numSeats][2];
-        int i = 0;
-        for (int[] seat : selectedSeats) {
-            int row = seat[0] + 1;
-            int col = seat[1] + 1;
-            actualSeat[i][0] = row;
-            actualSeat[i][1] = col;
-            i++;
-        }
-        return actualSeat;
+        return null;
     }
 
-    public static int[][] nonAdjacent(int numSeats, int[][] seatLayout) {
-        int numRows = seatLayout.length;
-        int numCols = seatLayout[0].length;
-        List<int[]> selectedSeats = new ArrayList<>();
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numCols; j++) {
+    /**
+     * 按行优先顺序选择可售座位，不要求座位相邻
+     *
+     * @param seatMap    车厢座位图编解码
+     * @param numSeats   座位数量
+     * @param seatLayout 座位图，0 代表可售，1 代表不可售
+     * @return 座位下标数组，可售座位不足时数组长度小于座位数量
+     */
+    public static int[] nonAdjacent(CarriageSeatMap seatMap, int numSeats, int[][] seatLayout) {
+        int[] selectedSeatIndexes = new int[Math.max(numSeats, 0)];
+        int selectedCount = 0;
+        for (int i = 0; i < seatLayout.length && selectedCount < numSeats; i++) {
+            for (int j = 0; j < seatLayout[i].length && selectedCount < numSeats; j++) {
                 if (seatLayout[i][j] == 0) {
-                    selectedSeats.add(new int[]{i, j});
-                    if (selectedSeats.size() == numSeats) {
-                        break;
-                    }
+                    selectedSeatIndexes[selectedCount++] = seatMap.seatIndex(i, j);
                 }
             }
-            if (selectedSeats.size() == numSeats) {
-                break;
-            }
-        }
-        return convertToActualSeat(selectedSeats);
-    }
-
-    private static int[][] convertToActualSeat(List<int[]> selectedSeats) {
-        int[][] actualSeat = new int[selectedSeats.size()][2];
-        for (int i = 0; i < selectedSeats.size(); i++) {
-            int[] seat = selectedSeats.get(i);
-            int row = seat[0] + 1;
-            int col = seat[1] + 1;
-            actualSeat[i][0] = row;
-            actualSeat[i][1] = col;
-        }
-        return actualSeat;
-    }
-
-    public static void main(String[] args) {
-        int[][] seatLayout = {
-                {1, 1, 1, 1},
-                {1, 1, 1, 0},
-                {1, 1, 1, 0},
-                {0, 0, 0, 0}
-        };
-        int[][] select = adjacent(2, seatLayout);
-        System.out.println("成功预订相邻座位，座位位置为：");
-        assert select != null;
-        for (int[] ints : select) {
-            System.out.printf("第 %d 排，第 %d 列%n", ints[0], ints[1]);
-        }
-
-        int[][] seatLayoutTwo = {
-                {1, 0, 1, 1},
-                {1, 1, 0, 0},
-                {1, 1, 1, 0},
-                {0, 0, 0, 0}
-        };
-        int[][] selectTwo = nonAdjacent(3, seatLayoutTwo);
-        System.out.println("成功预订不相邻座位，座位位置为：");
-        for (int[] ints : selectTwo) {
-            System.out.printf("第 %d 排，第 %d 列%n", ints[0], ints[1]);
         }
+        return selectedCount == selectedSeatIndexes.length ? selectedSeatIndexes : Arrays.copyOf(selectedSeatIndexes, selectedCount);
     }
 }
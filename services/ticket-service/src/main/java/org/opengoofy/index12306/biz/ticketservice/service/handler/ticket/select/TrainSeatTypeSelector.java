@@ -18,6 +18,7 @@
 package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select;
 
 import cn.hutool.core.collection.CollUtil;
+import com.alibaba.fastjson2.JSON;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +34,7 @@ import org.opengoofy.index12306.biz.ticketservice.remote.dto.PassengerRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.framework.starter.cache.MultistageCache;
 import org.opengoofy.index12306.framework.starter.convention.exception.RemoteException;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
 import org.opengoofy.index12306.framework.starter.convention.result.Result;
@@ -41,14 +43,19 @@ import org.opengoofy.index12306.frameworks.starter.user.core.UserContext;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_PRICE;
+
 /**
  * 购票时列车座位选择器
  *
@@ -62,6 +69,7 @@ public final class TrainSeatTypeSelector {
     private final SeatService seatService;
     private final UserRemoteService userRemoteService;
     private final TrainStationPriceMapper trainStationPriceMapper;
+    private final MultistageCache multistageCache;
     private final AbstractStrategyChoose abstractStrategyChoose;
     private final ThreadPoolExecutor selectSeatThreadPoolExecutor;
 
@@ -113,6 +121,7 @@ public final class TrainSeatTypeSelector {
             }
             throw ex;
         }
+        Map<Integer, Integer> seatTypePriceMap = getSeatTypePriceMap(requestParam);
         actualResult.forEach(each -> {
             String passengerId = each.getPassengerId();
             passengerRemoteResultList.stream()
@@ -125,20 +134,45 @@ public final class TrainSeatTypeSelector {
                         each.setIdType(passenger.getIdType());
                         each.setRealName(passenger.getRealName());
                     });
-            LambdaQueryWrapper<TrainStationPriceDO> lambdaQueryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
-                    .eq(TrainStationPriceDO::getTrainId, requestParam.getTrainId())
-                    .eq(TrainStationPriceDO::getDeparture, requestParam.getDeparture())
-                    .eq(TrainStationPriceDO::getArrival, requestParam.getArrival())
-                    .eq(TrainStationPriceDO::getSeatType, each.getSeatType())
-                    .select(TrainStationPriceDO::getPrice);
-            TrainStationPriceDO trainStationPriceDO = trainStationPriceMapper.selectOne(lambdaQueryWrapper);
-            each.setAmount(trainStationPriceDO.getPrice());
+            Integer price = seatTypePriceMap.get(each.getSeatType());
+            if (price == null) {
+                throw new ServiceException("列车站点座位价格不存在");
+            }
+            each.setAmount(price);
         });
         // 购买列车中间站点余票如何更新？详细查看：https://nageoffer.com/12306/question
         seatService.lockSeat(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival(), actualResult);
         return actualResult;
     }
 
+    /**
+     * 获取列车出发站点到达站点的全部座位类型价格，优先读取列车站点价格缓存
+     *
+     * @param requestParam 车票购买请求参数
+     * @return 座位类型与价格映射
+     */
+    private Map<Integer, Integer> getSeatTypePriceMap(PurchaseTicketReqDTO requestParam) {
+        String trainStationPriceStr = multistageCache.get(
+                String.format(TRAIN_STATION_PRICE, requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival()),
+                String.class,
+                () -> {
+                    LambdaQueryWrapper<TrainStationPriceDO> queryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
+                            .eq(TrainStationPriceDO::getDeparture, requestParam.getDeparture())
+                            .eq(TrainStationPriceDO::getArrival, requestParam.getArrival())
+                            .eq(TrainStationPriceDO::getTrainId, requestParam.getTrainId());
+                    return JSON.toJSONString(trainStationPriceMapper.selectList(queryWrapper));
+                },
+                ADVANCE_TICKET_DAY,
+                TimeUnit.DAYS
+        );
+        Map<Integer, Integer> seatTypePriceMap = new HashMap<>();
+        List<TrainStationPriceDO> trainStationPriceList = JSON.parseArray(trainStationPriceStr, TrainStationPriceDO.class);
+        if (CollUtil.isNotEmpty(trainStationPriceList)) {
+            trainStationPriceList.forEach(each -> seatTypePriceMap.put(each.getSeatType(), each.getPrice()));
+        }
+        return seatTypePriceMap;
+    }
+
     private List<TrainPurchaseTicketRespDTO> distributeSeats(Integer trainType, Integer seatType, PurchaseTicketReqDTO requestParam, List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails) {
         String buildStrategyKey = VehicleTypeEnum.findNameByCode(trainType) + VehicleSeatTypeEnum.findNameByCode(seatType);
         SelectSeatDTO selectSeatDTO = SelectSeatDTO.builder()
@@ -19,14 +19,11 @@ package org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.tokenb
 
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson2.JSONArray;
-import com.alibaba.fastjson2.JSONObject;
 import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainDO;
-import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainMapper;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
@@ -34,9 +31,12 @@ import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
 import org.opengoofy.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
 import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO;
 import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
-import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRouteIndexCache;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRouteIndexCache.TrainStationRouteIndex;
 import org.opengoofy.index12306.framework.starter.bases.Singleton;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.cache.MultistageCache;
 import org.opengoofy.index12306.framework.starter.common.toolkit.Assert;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
 import org.redisson.api.RLock;
@@ -47,6 +47,7 @@ import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scripting.support.ResourceScriptSource;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -69,10 +70,11 @@ import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKe
 @RequiredArgsConstructor
 public final class TicketAvailabilityTokenBucket {
 
-    private final TrainStationService trainStationService;
+    private final TrainStationRouteIndexCache trainStationRouteIndexCache;
     private final DistributedCache distributedCache;
+    private final MultistageCache multistageCache;
     private final RedissonClient redissonClient;
-    private final SeatMapper seatMapper;
+    private final SeatService seatService;
     private final TrainMapper trainMapper;
 
     private static final String LUA_TICKET_AVAILABILITY_TOKEN_BUCKET_PATH = "lua/ticket_availability_token_bucket.lua";
@@ -87,14 +89,14 @@ public final class TicketAvailabilityTokenBucket {
      * @return 是否获取列车车票余量令牌桶中的令牌，{@link Boolean#TRUE} or {@link Boolean#FALSE}
      */
     public boolean takeTokenFromBucket(PurchaseTicketReqDTO requestParam) {
-        TrainDO trainDO = distributedCache.safeGet(
+        TrainDO trainDO = multistageCache.get(
                 TRAIN_INFO + requestParam.getTrainId(),
                 TrainDO.class,
                 () -> trainMapper.selectById(requestParam.getTrainId()),
                 ADVANCE_TICKET_DAY,
                 TimeUnit.DAYS);
-        List<RouteDTO> routeDTOList = trainStationService
-                .listTrainStationRoute(requestParam.getTrainId(), trainDO.getStartStation(), trainDO.getEndStation());
+        TrainStationRouteIndex trainStationRouteIndex = trainStationRouteIndexCache.get(requestParam.getTrainId());
+        List<RouteDTO> routeDTOList = trainStationRouteIndex.throughStation(trainDO.getStartStation(), trainDO.getEndStation());
         StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
         String actualHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId();
         Boolean hasKey = distributedCache.hasKey(actualHashKey);
@@ -107,9 +109,9 @@ public final class TicketAvailabilityTokenBucket {
                     List<Integer> seatTypes = VehicleTypeEnum.findSeatTypesByCode(trainDO.getTrainType());
                     Map<String, String> ticketAvailabilityTokenMap = new HashMap<>();
                     for (RouteDTO each : routeDTOList) {
-                        List<SeatTypeCountDTO> seatTypeCountDTOList = seatMapper.listSeatTypeCount(Long.parseLong(requestParam.getTrainId()), each.getStartStation(), each.getEndStation(), seatTypes);
+                        List<SeatTypeCountDTO> seatTypeCountDTOList = seatService.listSeatTypeCount(requestParam.getTrainId(), each.getStartStation(), each.getEndStation(), seatTypes);
                         for (SeatTypeCountDTO eachSeatTypeCountDTO : seatTypeCountDTOList) {
-                            String buildCacheKey = StrUtil.join("_", each.getStartStation(), each.getEndStation(), eachSeatTypeCountDTO.getSeatType());
+                            String buildCacheKey = StrUtil.join("_", buildRouteField(trainStationRouteIndex, each.getStartStation(), each.getEndStation()), eachSeatTypeCountDTO.getSeatType());
                             ticketAvailabilityTokenMap.put(buildCacheKey, String.valueOf(eachSeatTypeCountDTO.getSeatCount()));
                         }
                     }
@@ -128,18 +130,9 @@ public final class TicketAvailabilityTokenBucket {
         Assert.notNull(actual);
         Map<Integer, Long> seatTypeCountMap = requestParam.getPassengers().stream()
                 .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType, Collectors.counting()));
-        JSONArray seatTypeCountArray = seatTypeCountMap.entrySet().stream()
-                .map(entry -> {
-                    JSONObject jsonObject = new JSONObject();
-                    jsonObject.put("seatType", String.valueOf(entry.getKey()));
-                    jsonObject.put("count", String.valueOf(entry.getValue()));
-                    return jsonObject;
-                })
-                .collect(Collectors.toCollection(JSONArray::new));
-        List<RouteDTO> takeoutRouteDTOList = trainStationService
-                .listTakeoutTrainStationRoute(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival());
-        String luaScriptKey = StrUtil.join("_", requestParam.getDeparture(), requestParam.getArrival());
-        Long result = stringRedisTemplate.execute(actual, Lists.newArrayList(actualHashKey, luaScriptKey), JSON.toJSONString(seatTypeCountArray), JSON.toJSONString(takeoutRouteDTOList));
+        List<RouteDTO> takeoutRouteDTOList = trainStationRouteIndex.takeoutStation(requestParam.getDeparture(), requestParam.getArrival());
+        List<String> scriptArgs = buildScriptArgs(trainStationRouteIndex, seatTypeCountMap, requestParam.getDeparture(), requestParam.getArrival(), takeoutRouteDTOList);
+        Long result = stringRedisTemplate.execute(actual, Lists.newArrayList(actualHashKey), scriptArgs.toArray());
         return result != null && Objects.equals(result, 0L);
     }
 
@@ -159,25 +152,39 @@ public final class TicketAvailabilityTokenBucket {
         List<TicketOrderPassengerDetailRespDTO> passengerDetails = requestParam.getPassengerDetails();
         Map<Integer, Long> seatTypeCountMap = passengerDetails.stream()
                 .collect(Collectors.groupingBy(TicketOrderPassengerDetailRespDTO::getSeatType, Collectors.counting()));
-        JSONArray seatTypeCountArray = seatTypeCountMap.entrySet().stream()
-                .map(entry -> {
-                    JSONObject jsonObject = new JSONObject();
-                    jsonObject.put("seatType", String.valueOf(entry.getKey()));
-                    jsonObject.put("count", String.valueOf(entry.getValue()));
-                    return jsonObject;
-                })
-                .collect(Collectors.toCollection(JSONArray::new));
         StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
         String actualHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId();
-        String luaScriptKey = StrUtil.join("_", requestParam.getDeparture(), requestParam.getArrival());
-        List<RouteDTO> takeoutRouteDTOList = trainStationService.listTakeoutTrainStationRoute(String.valueOf(requestParam.getTrainId()), requestParam.getDeparture(), requestParam.getArrival());
-        Long result = stringRedisTemplate.execute(actual, Lists.newArrayList(actualHashKey, luaScriptKey), JSON.toJSONString(seatTypeCountArray), JSON.toJSONString(takeoutRouteDTOList));
+        TrainStationRouteIndex trainStationRouteIndex = trainStationRouteIndexCache.get(String.valueOf(requestParam.getTrainId()));
+        List<RouteDTO> takeoutRouteDTOList = trainStationRouteIndex.takeoutStation(requestParam.getDeparture(), requestParam.getArrival());
+        List<String> scriptArgs = buildScriptArgs(trainStationRouteIndex, seatTypeCountMap, requestParam.getDeparture(), requestParam.getArrival(), takeoutRouteDTOList);
+        Long result = stringRedisTemplate.execute(actual, Lists.newArrayList(actualHashKey), scriptArgs.toArray());
         if (result == null || !Objects.equals(result, 0L)) {
             log.error("回滚列车余票令牌失败，订单信息：{}", JSON.toJSONString(requestParam));
             throw new ServiceException("回滚列车余票令牌失败");
         }
     }
 
+    /**
+     * 构建令牌桶 LUA 脚本参数，依次为座位类型数量、座位类型与数量、用户购买路线以及需扣减路线
+     * 路线以站点下标表示，避免 LUA 脚本中通过 cjson 反序列化
+     */
+    private List<String> buildScriptArgs(TrainStationRouteIndex trainStationRouteIndex, Map<Integer, Long> seatTypeCountMap,
+                                         String departure, String arrival, List<RouteDTO> takeoutRouteDTOList) {
+        List<String> scriptArgs = new ArrayList<>(seatTypeCountMap.size() * 2 + takeoutRouteDTOList.size() + 2);
+        scriptArgs.add(String.valueOf(seatTypeCountMap.size()));
+        seatTypeCountMap.forEach((seatType, count) -> {
+            scriptArgs.add(String.valueOf(seatType));
+            scriptArgs.add(String.valueOf(count));
+        });
+        scriptArgs.add(buildRouteField(trainStationRouteIndex, departure, arrival));
+        takeoutRouteDTOList.forEach(each -> scriptArgs.add(buildRouteField(trainStationRouteIndex, each.getStartStation(), each.getEndStation())));
+        return scriptArgs;
+    }
+
+    private String buildRouteField(TrainStationRouteIndex trainStationRouteIndex, String startStation, String endStation) {
+        return trainStationRouteIndex.indexOf(startStation) + "_" + trainStationRouteIndex.indexOf(endStation);
+    }
+
     public void putTokenInBucket() {
 
     }
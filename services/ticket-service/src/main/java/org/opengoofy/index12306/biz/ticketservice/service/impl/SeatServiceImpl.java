@@ -20,18 +20,23 @@ package org.opengoofy.index12306.biz.ticketservice.service.impl;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.opengoofy.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatMapper;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatSegmentMapper;
 import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
 import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
 import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.toolkit.StationCalculateUtil;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -48,14 +53,33 @@ import static org.opengoofy.index12306.biz.ticketservice.common.constant.RedisKe
  */
 @Service
 @RequiredArgsConstructor
-public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements SeatService {
+public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements SeatService, InitializingBean {
 
     private final SeatMapper seatMapper;
     private final TrainStationService trainStationService;
     private final DistributedCache distributedCache;
+    private final SeatSegmentMapper seatSegmentMapper;
+
+    @Value("${ticket.seat.inventory-type:}")
+    private String seatInventoryType;
+
+    @Value("${ticket.availability.cache-update.type:}")
+    private String ticketAvailabilityCacheUpdateType;
+
+    @Override
+    public void afterPropertiesSet() {
+        // 位图库存锁座只更新 t_seat_segment，不会产生 t_seat 变更 Binlog，余票缓存无法通过 Canal 同步
+        if (isSegmentBitmapInventory() && StrUtil.equals(ticketAvailabilityCacheUpdateType, "binlog")) {
+            throw new ServiceException("ticket.seat.inventory-type=bitmap 不支持与 ticket.availability.cache-update.type=binlog 同时开启");
+        }
+    }
 
     @Override
     public List<String> listAvailableSeat(String trainId, String carriageNumber, Integer seatType, String departure, String arrival) {
+        if (isSegmentBitmapInventory()) {
+            long segmentMask = buildSegmentMask(trainId, departure, arrival);
+            return seatSegmentMapper.listAvailableSeat(Long.parseLong(trainId), carriageNumber, seatType, segmentMask);
+        }
         LambdaQueryWrapper<SeatDO> queryWrapper = Wrappers.lambdaQuery(SeatDO.class)
                 .eq(SeatDO::getTrainId, trainId)
                 .eq(SeatDO::getCarriageNumber, carriageNumber)
@@ -79,6 +103,10 @@ public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements
                 return trainStationCarriageRemainingTicket.stream().map(each -> Integer.parseInt(each.toString())).collect(Collectors.toList());
             }
         }
+        if (isSegmentBitmapInventory()) {
+            long segmentMask = buildSegmentMask(trainId, departure, arrival);
+            return seatSegmentMapper.listSeatRemainingTicket(Long.parseLong(trainId), segmentMask, trainCarriageList);
+        }
         SeatDO seatDO = SeatDO.builder()
                 .trainId(Long.parseLong(trainId))
                 .startStation(departure)
@@ -89,6 +117,10 @@ public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements
 
     @Override
     public List<String> listUsableCarriageNumber(String trainId, Integer carriageType, String departure, String arrival) {
+        if (isSegmentBitmapInventory()) {
+            long segmentMask = buildSegmentMask(trainId, departure, arrival);
+            return seatSegmentMapper.listUsableCarriageNumber(Long.parseLong(trainId), carriageType, segmentMask);
+        }
         LambdaQueryWrapper<SeatDO> queryWrapper = Wrappers.lambdaQuery(SeatDO.class)
                 .eq(SeatDO::getTrainId, trainId)
                 .eq(SeatDO::getSeatType, carriageType)
@@ -101,37 +133,56 @@ public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements
         return seatDOList.stream().map(SeatDO::getCarriageNumber).collect(Collectors.toList());
     }
 
+    @Override
+    public List<SeatTypeCountDTO> listSeatTypeCount(String trainId, String departure, String arrival, List<Integer> seatTypes) {
+        if (isSegmentBitmapInventory()) {
+            long segmentMask = buildSegmentMask(trainId, departure, arrival);
+            return seatSegmentMapper.listSeatTypeCount(Long.parseLong(trainId), segmentMask, seatTypes);
+        }
+        return seatMapper.listSeatTypeCount(Long.parseLong(trainId), departure, arrival, seatTypes);
+    }
+
     @Override
     public void lockSeat(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketRespList) {
+        if (isSegmentBitmapInventory()) {
+            long segmentMask = buildSegmentMask(trainId, departure, arrival);
+            int lockCount = seatSegmentMapper.lockSeatSegment(Long.parseLong(trainId), segmentMask, trainPurchaseTicketRespList);
+            if (lockCount != trainPurchaseTicketRespList.size()) {
+                throw new ServiceException("座位已被占用，请重新选择");
+            }
+            return;
+        }
         List<RouteDTO> routeList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-        trainPurchaseTicketRespList.forEach(each -> routeList.forEach(item -> {
-            LambdaUpdateWrapper<SeatDO> updateWrapper = Wrappers.lambdaUpdate(SeatDO.class)
-                    .eq(SeatDO::getTrainId, trainId)
-                    .eq(SeatDO::getCarriageNumber, each.getCarriageNumber())
-                    .eq(SeatDO::getStartStation, item.getStartStation())
-                    .eq(SeatDO::getEndStation, item.getEndStation())
-                    .eq(SeatDO::getSeatNumber, each.getSeatNumber());
-            SeatDO updateSeatDO = SeatDO.builder()
-                    .seatStatus(SeatStatusEnum.LOCKED.getCode())
-                    .build();
-            seatMapper.update(updateSeatDO, updateWrapper);
-        }));
+        if (CollUtil.isEmpty(routeList) || CollUtil.isEmpty(trainPurchaseTicketRespList)) {
+            return;
+        }
+        seatMapper.updateSeatStatusBatch(Long.parseLong(trainId), SeatStatusEnum.LOCKED.getCode(), trainPurchaseTicketRespList, routeList);
     }
 
     @Override
     public void unlock(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults) {
+        if (isSegmentBitmapInventory()) {
+            long segmentMask = buildSegmentMask(trainId, departure, arrival);
+            seatSegmentMapper.unlockSeatSegment(Long.parseLong(trainId), segmentMask, trainPurchaseTicketResults);
+            return;
+        }
         List<RouteDTO> routeList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-        trainPurchaseTicketResults.forEach(each -> routeList.forEach(item -> {
-            LambdaUpdateWrapper<SeatDO> updateWrapper = Wrappers.lambdaUpdate(SeatDO.class)
-                    .eq(SeatDO::getTrainId, trainId)
-                    .eq(SeatDO::getCarriageNumber, each.getCarriageNumber())
-                    .eq(SeatDO::getStartStation, item.getStartStation())
-                    .eq(SeatDO::getEndStation, item.getEndStation())
-                    .eq(SeatDO::getSeatNumber, each.getSeatNumber());
-            SeatDO updateSeatDO = SeatDO.builder()
-                    .seatStatus(SeatStatusEnum.AVAILABLE.getCode())
-                    .build();
-            seatMapper.update(updateSeatDO, updateWrapper);
-        }));
+        if (CollUtil.isEmpty(routeList) || CollUtil.isEmpty(trainPurchaseTicketResults)) {
+            return;
+        }
+        seatMapper.updateSeatStatusBatch(Long.parseLong(trainId), SeatStatusEnum.AVAILABLE.getCode(), trainPurchaseTicketResults, routeList);
+    }
+
+    private boolean isSegmentBitmapInventory() {
+        return StrUtil.equals(seatInventoryType, "bitmap");
+    }
+
+    private long buildSegmentMask(String trainId, String departure, String arrival) {
+        List<String> trainStationNames = trainStationService.listTrainStationName(trainId);
+        long segmentMask = StationCalculateUtil.segmentMask(trainStationNames, departure, arrival);
+        if (segmentMask == 0L) {
+            throw new ServiceException("列车站点不存在或出发站与到达站顺序错误");
+        }
+        return segmentMask;
     }
 }
@@ -69,14 +69,21 @@ import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderPassenge
 import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
 import org.opengoofy.index12306.biz.ticketservice.service.TicketService;
 import org.opengoofy.index12306.biz.ticketservice.service.TrainStationService;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.RegionTrainStationIndexCache;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.RegionTrainStationIndexCache.SeatPriceItem;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.RegionTrainStationIndexCache.TicketIndexItem;
 import org.opengoofy.index12306.biz.ticketservice.service.cache.SeatMarginCacheLoader;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainPurchasedPassengerCache;
+import org.opengoofy.index12306.biz.ticketservice.service.cache.TrainStationRemainingTicketCacheUpdater;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.groupcommit.PurchaseTicketGroupCommitter;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.TrainSeatTypeSelector;
 import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucket;
 import org.opengoofy.index12306.biz.ticketservice.toolkit.DateUtil;
 import org.opengoofy.index12306.biz.ticketservice.toolkit.TimeStringComparator;
 import org.opengoofy.index12306.framework.starter.bases.ApplicationContextHolder;
 import org.opengoofy.index12306.framework.starter.cache.DistributedCache;
+import org.opengoofy.index12306.framework.starter.cache.MultistageCache;
 import org.opengoofy.index12306.framework.starter.cache.toolkit.CacheUtil;
 import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
 import org.opengoofy.index12306.framework.starter.convention.exception.ServiceException;
@@ -106,6 +113,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.opengoofy.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
@@ -134,6 +142,7 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
     private final TrainStationRelationMapper trainStationRelationMapper;
     private final TrainStationPriceMapper trainStationPriceMapper;
     private final DistributedCache distributedCache;
+    private final MultistageCache multistageCache;
     private final TicketOrderRemoteService ticketOrderRemoteService;
     private final PayRemoteService payRemoteService;
     private final StationMapper stationMapper;
@@ -141,6 +150,10 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
     private final TrainStationService trainStationService;
     private final TrainSeatTypeSelector trainSeatTypeSelector;
     private final SeatMarginCacheLoader seatMarginCacheLoader;
+    private final RegionTrainStationIndexCache regionTrainStationIndexCache;
+    private final TrainStationRemainingTicketCacheUpdater trainStationRemainingTicketCacheUpdater;
+    private final TrainPurchasedPassengerCache trainPurchasedPassengerCache;
+    private final PurchaseTicketGroupCommitter purchaseTicketGroupCommitter;
     private final AbstractChainContext<TicketPageQueryReqDTO> ticketPageQueryAbstractChainContext;
     private final AbstractChainContext<PurchaseTicketReqDTO> purchaseTicketAbstractChainContext;
     private final AbstractChainContext<RefundTicketReqDTO> refundReqDTOAbstractChainContext;
@@ -198,7 +211,7 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                             .eq(TrainStationRelationDO::getEndRegion, stationDetails.get(1));
                     List<TrainStationRelationDO> trainStationRelationList = trainStationRelationMapper.selectList(queryWrapper);
                     for (TrainStationRelationDO each : trainStationRelationList) {
-                        TrainDO trainDO = distributedCache.safeGet(
+                        TrainDO trainDO = multistageCache.get(
                                 TRAIN_INFO + each.getTrainId(),
                                 TrainDO.class,
                                 () -> trainMapper.selectById(each.getTrainId()),
@@ -237,7 +250,7 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                 : seatResults;
         seatResults = seatResults.stream().sorted(new TimeStringComparator()).toList();
         for (TicketListDTO each : seatResults) {
-            String trainStationPriceStr = distributedCache.safeGet(
+            String trainStationPriceStr = multistageCache.get(
                     String.format(TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival()),
                     String.class,
                     () -> {
@@ -343,51 +356,131 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                 .build();
     }
 
+    @Override
+    public TicketPageQueryRespDTO pageListTicketQueryV3(TicketPageQueryReqDTO requestParam) {
+        // 责任链模式 验证城市名称是否存在、不存在加载缓存以及出发日期不能小于当前日期等等
+        ticketPageQueryAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_QUERY_FILTER.name(), requestParam);
+        // v3 版本将车次以及座位价格预计算为本地已排序索引，仅余票通过一次 Redis 管道查询获取
+        List<TicketIndexItem> ticketIndexItems = regionTrainStationIndexCache.listTicketIndex(requestParam.getFromStation(), requestParam.getToStation());
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<Object> trainStationRemainingObjs = stringRedisTemplate.executePipelined((RedisCallback<String>) connection -> {
+            for (TicketIndexItem each : ticketIndexItems) {
+                byte[] remainingTicketKey = (cacheRedisPrefix + each.getRemainingTicketKey()).getBytes();
+                each.getSeatPriceItems().forEach(item -> connection.hashCommands().hGet(remainingTicketKey, item.getSeatTypeField()));
+            }
+            return null;
+        });
+        List<TicketListDTO> seatResults = new ArrayList<>(ticketIndexItems.size());
+        int remainingIndex = 0;
+        for (TicketIndexItem each : ticketIndexItems) {
+            TicketListDTO ticketListDTO = each.copyTicketList();
+            List<SeatClassDTO> seatClassList = new ArrayList<>(each.getSeatPriceItems().size());
+            for (SeatPriceItem item : each.getSeatPriceItems()) {
+                Object quantityObj = trainStationRemainingObjs.get(remainingIndex++);
+                int quantity = Optional.ofNullable(quantityObj)
+                        .map(Object::toString)
+                        .map(Integer::parseInt)
+                        .orElseGet(() -> {
+                            String seatType = String.valueOf(item.getSeatType());
+                            Map<String, String> seatMarginMap = seatMarginCacheLoader.load(ticketListDTO.getTrainId(), seatType, ticketListDTO.getDeparture(), ticketListDTO.getArrival());
+                            return Optional.ofNullable(seatMarginMap.get(seatType)).map(Integer::parseInt).orElse(0);
+                        });
+                seatClassList.add(new SeatClassDTO(item.getSeatType(), quantity, item.getPrice(), false));
+            }
+            ticketListDTO.setSeatClassList(seatClassList);
+            seatResults.add(ticketListDTO);
+        }
+        return TicketPageQueryRespDTO.builder()
+                .trainList(seatResults)
+                .departureStationList(buildDepartureStationList(seatResults))
+                .arrivalStationList(buildArrivalStationList(seatResults))
+                .trainBrandList(buildTrainBrandList(seatResults))
+                .seatClassTypeList(buildSeatClassList(seatResults))
+                .build();
+    }
+
     @Override
     public TicketPurchaseRespDTO purchaseTicketsV1(PurchaseTicketReqDTO requestParam) {
         // 责任链模式，验证 1：参数必填 2：参数正确性 3：乘客是否已买当前车次等...
         purchaseTicketAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_PURCHASE_TICKET_FILTER.name(), requestParam);
         // v1 版本购票存在 4 个较为严重的问题，v2 版本相比较 v1 版本更具有业务特点以及性能，整体提升较大
         // 写了详细的 v2 版本购票升级指南，欢迎查阅 https://nageoffer.com/12306/question
-        String lockKey = environment.resolvePlaceholders(String.format(LOCK_PURCHASE_TICKETS, requestParam.getTrainId()));
-        RLock lock = redissonClient.getLock(lockKey);
-        lock.lock();
-        try {
-            return ticketService.executePurchaseTickets(requestParam);
-        } finally {
-            lock.unlock();
-        }
+        return releasePassengerOnFailure(requestParam, () -> {
+            String lockKey = environment.resolvePlaceholders(String.format(LOCK_PURCHASE_TICKETS, requestParam.getTrainId()));
+            RLock lock = redissonClient.getLock(lockKey);
+            lock.lock();
+            try {
+                return ticketService.executePurchaseTickets(requestParam);
+            } finally {
+                lock.unlock();
+            }
+        });
     }
 
     private final Cache<String, ReentrantLock> localLockMap = Caffeine.newBuilder()
-            .expireAfterWrite(1, TimeUnit.DAYS)
+            .expireAfterAccess(1, TimeUnit.DAYS)
             .build();
 
     @Override
     public TicketPurchaseRespDTO purchaseTicketsV2(PurchaseTicketReqDTO requestParam) {
         // 责任链模式，验证 1：参数必填 2：参数正确性 3：乘客是否已买当前车次等...
         purchaseTicketAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_PURCHASE_TICKET_FILTER.name(), requestParam);
-        boolean tokenResult = ticketAvailabilityTokenBucket.takeTokenFromBucket(requestParam);
-        if (!tokenResult) {
-            throw new ServiceException("列车站点已无余票");
+        return releasePassengerOnFailure(requestParam, () -> {
+            boolean tokenResult = ticketAvailabilityTokenBucket.takeTokenFromBucket(requestParam);
+            if (!tokenResult) {
+                throw new ServiceException("列车站点已无余票");
+            }
+            // v1 版本购票存在 4 个较为严重的问题，v2 版本相比较 v1 版本更具有业务特点以及性能，整体提升较大
+            // 写了详细的 v2 版本购票升级指南，欢迎查阅 https://nageoffer.com/12306/question
+            return executePurchaseTicketsWithLock(requestParam);
+        });
+    }
+
+    @Override
+    public TicketPurchaseRespDTO purchaseTicketsV3(PurchaseTicketReqDTO requestParam) {
+        // 责任链模式，验证 1：参数必填 2：参数正确性 3：乘客是否已买当前车次等...
+        purchaseTicketAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_PURCHASE_TICKET_FILTER.name(), requestParam);
+        return releasePassengerOnFailure(requestParam, () -> {
+            boolean tokenResult = ticketAvailabilityTokenBucket.takeTokenFromBucket(requestParam);
+            if (!tokenResult) {
+                throw new ServiceException("列车站点已无余票");
+            }
+            Set<Integer> seatTypes = requestParam.getPassengers().stream()
+                    .map(PurchaseTicketPassengerDetailDTO::getSeatType)
+                    .collect(Collectors.toSet());
+            // 跨多个座位类型的请求需同时持有多把锁，无法归入单一批次，沿用 v2 版本加锁方式
+            if (seatTypes.size() != 1) {
+                return executePurchaseTicketsWithLock(requestParam);
+            }
+            String lockKey = environment.resolvePlaceholders(String.format(LOCK_PURCHASE_TICKETS_V2, requestParam.getTrainId(), seatTypes.iterator().next()));
+            return purchaseTicketGroupCommitter.submit(lockKey, requestParam, ticketService::executePurchaseTickets);
+        });
+    }
+
+    /**
+     * 乘车人已在购票责任链中预占列车购票资格，购票失败时释放预占，避免乘车人无法重新购买
+     */
+    private TicketPurchaseRespDTO releasePassengerOnFailure(PurchaseTicketReqDTO requestParam, Supplier<TicketPurchaseRespDTO> purchaseExecutor) {
+        try {
+            return purchaseExecutor.get();
+        } catch (Throwable ex) {
+            List<String> passengerIds = requestParam.getPassengers().stream()
+                    .map(PurchaseTicketPassengerDetailDTO::getPassengerId)
+                    .toList();
+            trainPurchasedPassengerCache.remove(requestParam.getTrainId(), passengerIds);
+            throw ex;
         }
-        // v1 版本购票存在 4 个较为严重的问题，v2 版本相比较 v1 版本更具有业务特点以及性能，整体提升较大
-        // 写了详细的 v2 版本购票升级指南，欢迎查阅 https://nageoffer.com/12306/question
+    }
+
+    private TicketPurchaseRespDTO executePurchaseTicketsWithLock(PurchaseTicketReqDTO requestParam) {
         List<ReentrantLock> localLockList = new ArrayList<>();
         List<RLock> distributedLockList = new ArrayList<>();
         Map<Integer, List<PurchaseTicketPassengerDetailDTO>> seatTypeMap = requestParam.getPassengers().stream()
                 .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType));
         seatTypeMap.forEach((searType, count) -> {
             String lockKey = environment.resolvePlaceholders(String.format(LOCK_PURCHASE_TICKETS_V2, requestParam.getTrainId(), searType));
-            ReentrantLock localLock = localLockMap.getIfPresent(lockKey);
-            if (localLock == null) {
-                synchronized (TicketService.class) {
-                    if ((localLock = localLockMap.getIfPresent(lockKey)) == null) {
-                        localLock = new ReentrantLock(true);
-                        localLockMap.put(lockKey, localLock);
-                    }
-                }
-            }
+            // Caffeine 按 Key 原子创建本地锁，不同车次座位类型之间不再竞争全局监视器
+            ReentrantLock localLock = localLockMap.get(lockKey, key -> new ReentrantLock(true));
             localLockList.add(localLock);
             RLock distributedLock = redissonClient.getFairLock(lockKey);
             distributedLockList.add(distributedLock);
@@ -418,7 +511,7 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
         List<TicketOrderDetailRespDTO> ticketOrderDetailResults = new ArrayList<>();
         String trainId = requestParam.getTrainId();
         // 节假日高并发购票Redis能扛得住么？详情查看：https://nageoffer.com/12306/question
-        TrainDO trainDO = distributedCache.safeGet(
+        TrainDO trainDO = multistageCache.get(
                 TRAIN_INFO + trainId,
                 TrainDO.class,
                 () -> trainMapper.selectById(trainId),
@@ -444,6 +537,7 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                         .amount(each.getAmount())
                         .carriageNumber(each.getCarriageNumber())
                         .seatNumber(each.getSeatNumber())
+                        .passengerId(each.getPassengerId())
                         .idCard(each.getIdCard())
                         .idType(each.getIdType())
                         .phone(each.getPhone())
@@ -503,13 +597,26 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
     @Override
     public void cancelTicketOrder(CancelTicketOrderReqDTO requestParam) {
         Result<Void> cancelOrderResult = ticketOrderRemoteService.cancelTicketOrder(requestParam);
-        if (cancelOrderResult.isSuccess() && !StrUtil.equals(ticketAvailabilityCacheUpdateType, "binlog")) {
-            Result<org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO> ticketOrderDetailResult = ticketOrderRemoteService.queryTicketOrderByOrderSn(requestParam.getOrderSn());
-            org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO ticketOrderDetail = ticketOrderDetailResult.getData();
-            String trainId = String.valueOf(ticketOrderDetail.getTrainId());
-            String departure = ticketOrderDetail.getDeparture();
-            String arrival = ticketOrderDetail.getArrival();
-            List<TicketOrderPassengerDetailRespDTO> trainPurchaseTicketResults = ticketOrderDetail.getPassengerDetails();
+        if (!cancelOrderResult.isSuccess()) {
+            return;
+        }
+        Result<org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO> ticketOrderDetailResult = ticketOrderRemoteService.queryTicketOrderByOrderSn(requestParam.getOrderSn());
+        org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO ticketOrderDetail = ticketOrderDetailResult.getData();
+        String trainId = String.valueOf(ticketOrderDetail.getTrainId());
+        String departure = ticketOrderDetail.getDeparture();
+        String arrival = ticketOrderDetail.getArrival();
+        List<TicketOrderPassengerDetailRespDTO> trainPurchaseTicketResults = ticketOrderDetail.getPassengerDetails();
+        try {
+            List<String> passengerIds = trainPurchaseTicketResults.stream()
+                    .map(TicketOrderPassengerDetailRespDTO::getPassengerId)
+                    .filter(Objects::nonNull)
+                    .toList();
+            trainPurchasedPassengerCache.remove(trainId, passengerIds);
+        } catch (Throwable ex) {
+            log.error("[取消订单] 订单号：{} 移除列车已购票乘车人失败", requestParam.getOrderSn(), ex);
+            throw ex;
+        }
+        if (!StrUtil.equals(ticketAvailabilityCacheUpdateType, "binlog")) {
             try {
                 seatService.unlock(trainId, departure, arrival, BeanUtil.convert(trainPurchaseTicketResults, TrainPurchaseTicketRespDTO.class));
             } catch (Throwable ex) {
@@ -518,17 +625,10 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
             }
             ticketAvailabilityTokenBucket.rollbackInBucket(ticketOrderDetail);
             try {
-                StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
-                Map<Integer, List<TicketOrderPassengerDetailRespDTO>> seatTypeMap = trainPurchaseTicketResults.stream()
-                        .collect(Collectors.groupingBy(TicketOrderPassengerDetailRespDTO::getSeatType));
+                Map<Integer, Integer> seatTypeCountMap = trainPurchaseTicketResults.stream()
+                        .collect(Collectors.groupingBy(TicketOrderPassengerDetailRespDTO::getSeatType, Collectors.summingInt(each -> 1)));
                 List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-                routeDTOList.forEach(each -> {
-                    String keySuffix = StrUtil.join("_", trainId, each.getStartStation(), each.getEndStation());
-                    seatTypeMap.forEach((seatType, ticketOrderPassengerDetailRespDTOList) -> {
-                        stringRedisTemplate.opsForHash()
-                                .increment(TRAIN_STATION_REMAINING_TICKET + keySuffix, String.valueOf(seatType), ticketOrderPassengerDetailRespDTOList.size());
-                    });
-                });
+                trainStationRemainingTicketCacheUpdater.increment(trainId, routeDTOList, seatTypeCountMap);
             } catch (Throwable ex) {
                 log.error("[取消关闭订单] 订单号：{} 回滚列车Cache余票失败", requestParam.getOrderSn(), ex);
                 throw ex;
@@ -575,6 +675,13 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
         if (!refundRespDTOResult.isSuccess() && Objects.isNull(refundRespDTOResult.getData())) {
             throw new ServiceException("车票订单退款失败");
         }
+        if (CollectionUtil.isNotEmpty(refundReqDTO.getRefundDetailReqDTOList())) {
+            List<String> refundPassengerIds = refundReqDTO.getRefundDetailReqDTOList().stream()
+                    .map(TicketOrderPassengerDetailRespDTO::getPassengerId)
+                    .filter(Objects::nonNull)
+                    .toList();
+            trainPurchasedPassengerCache.remove(String.valueOf(ticketOrderDetailRespDTO.getTrainId()), refundPassengerIds);
+        }
         return null; // 暂时返回空实体
     }
 
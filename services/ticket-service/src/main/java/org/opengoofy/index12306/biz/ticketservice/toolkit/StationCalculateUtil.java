@@ -86,6 +86,26 @@ public final class StationCalculateUtil {
         return takeoutStationList;
     }
 
+    /**
+     * 计算出发站到终点站占用的区段位图，第 i 位表示第 i 站到第 i + 1 站区段
+     *
+     * @param stations     所有站点数据
+     * @param startStation 出发站
+     * @param endStation   终点站
+     * @return 区段位图，站点不存在或顺序错误返回 0
+     */
+    public static long segmentMask(List<String> stations, String startStation, String endStation) {
+        int startIndex = stations.indexOf(startStation);
+        int endIndex = stations.indexOf(endStation);
+        if (startIndex == -1 || endIndex == -1 || startIndex >= endIndex) {
+            return 0L;
+        }
+        if (endIndex > Long.SIZE - 1) {
+            throw new IllegalArgumentException("列车区段数量超过位图上限：" + (Long.SIZE - 1));
+        }
+        return (1L << endIndex) - (1L << startIndex);
+    }
+
     public static void main(String[] args) {
         List<String> stations = Arrays.asList("北京南", "济南西", "南京南", "杭州东", "宁波");
         String startStation = "北京南";
@@ -1,25 +1,16 @@
-local inputString = KEYS[2]
-local actualKey = inputString
-local colonIndex = string.find(actualKey, ":")
-if colonIndex ~= nil then
-    actualKey = string.sub(actualKey, colonIndex + 1)
-end
-
-local jsonArrayStr = ARGV[1]
-local jsonArray = cjson.decode(jsonArrayStr)
-local alongJsonArrayStr = ARGV[2]
-local alongJsonArray = cjson.decode(alongJsonArrayStr)
+-- KEYS[1] 为列车购买令牌桶 Hash Key，Hash Field 为 出发站下标_到达站下标_座位类型
+-- ARGV[1] 为座位类型数量 n，ARGV[2] ~ ARGV[2n + 1] 依次为 座位类型, 回滚数量
+-- ARGV[2n + 2] 为用户购买的 出发站下标_到达站下标，其余参数为需要回滚的 出发站下标_到达站下标
+local seatTypeSize = tonumber(ARGV[1])
+local routeStartIndex = seatTypeSize * 2 + 2
 
-for index, jsonObj in ipairs(jsonArray) do
-    local seatType = tonumber(jsonObj.seatType)
-    local count = tonumber(jsonObj.count)
-    for indexTwo, alongJsonObj in ipairs(alongJsonArray) do
-        local startStation = tostring(alongJsonObj.startStation)
-        local endStation = tostring(alongJsonObj.endStation)
-        local actualInnerHashKey = startStation .. "_" .. endStation .. "_" .. seatType
-        local ticketSeatAvailabilityTokenValue = tonumber(redis.call('hget', KEYS[1], tostring(actualInnerHashKey)))
-        if ticketSeatAvailabilityTokenValue >= 0 then
-            redis.call('hincrby', KEYS[1], tostring(actualInnerHashKey), count)
+for index = 2, seatTypeSize * 2, 2 do
+    local count = tonumber(ARGV[index + 1])
+    for routeIndex = routeStartIndex + 1, #ARGV do
+        local actualInnerHashKey = ARGV[routeIndex] .. "_" .. ARGV[index]
+        local ticketSeatAvailabilityTokenValue = tonumber(redis.call('hget', KEYS[1], actualInnerHashKey))
+        if ticketSeatAvailabilityTokenValue ~= nil and ticketSeatAvailabilityTokenValue >= 0 then
+            redis.call('hincrby', KEYS[1], actualInnerHashKey, count)
         end
     end
 end
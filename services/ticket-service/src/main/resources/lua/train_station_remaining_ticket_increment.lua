@@ -0,0 +1,9 @@
+-- KEYS 为需要变更的站点余票 Hash Key 集合
+-- ARGV 依次为 座位类型, 变更数量, 座位类型, 变更数量 ...
+for index = 1, #KEYS do
+    for argIndex = 1, #ARGV, 2 do
+        redis.call('hincrby', KEYS[index], ARGV[argIndex], ARGV[argIndex + 1])
+    end
+end
+
+return 0
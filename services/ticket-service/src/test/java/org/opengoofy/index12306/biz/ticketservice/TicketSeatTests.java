@@ -24,10 +24,12 @@ import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import org.junit.jupiter.api.Test;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.CarriageDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatDO;
+import org.opengoofy.index12306.biz.ticketservice.dao.entity.SeatSegmentDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.entity.TrainStationPriceDO;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.CarriageMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatMapper;
+import org.opengoofy.index12306.biz.ticketservice.dao.mapper.SeatSegmentMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainMapper;
 import org.opengoofy.index12306.biz.ticketservice.dao.mapper.TrainStationPriceMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,7 +37,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @SpringBootTest
@@ -49,6 +53,8 @@ class TicketSeatTests {
     private SeatMapper seatMapper;
     @Autowired
     private CarriageMapper carriageMapper;
+    @Autowired
+    private SeatSegmentMapper seatSegmentMapper;
 
     @Test
     void testInitData() {
@@ -81,6 +87,38 @@ class TicketSeatTests {
         }
     }
 
+    /**
+     * 区段位图座位库存，每个物理座位仅生成一条记录
+     */
+    @Test
+    void testInitSegmentData() {
+        String trainId = "2";
+        List<TrainStationPriceDO> trainStationPrices = selectTrainStationPrices(trainId);
+        List<CarriageDO> carriages = selectCarriages(trainId);
+        TrainDO trainDO = trainMapper.selectById(trainId);
+        List<SeatDO> seats = new ArrayList<>();
+        if (Objects.equals(trainDO.getTrainType(), 0)) {
+            seats.addAll(buildBusinessClass(trainStationPrices, carriages));
+            seats.addAll(buildFirstClass(trainStationPrices, carriages));
+            seats.addAll(buildSecondClass(trainStationPrices, carriages));
+        } else {
+            seats.addAll(buildSecondClassCabinSeat(trainStationPrices, carriages));
+            seats.addAll(buildFirstSleeper(trainStationPrices, carriages));
+            seats.addAll(buildSecondSleeper(trainStationPrices, carriages));
+        }
+        Map<String, SeatSegmentDO> seatSegmentMap = new LinkedHashMap<>();
+        for (SeatDO each : seats) {
+            seatSegmentMap.computeIfAbsent(each.getCarriageNumber() + "_" + each.getSeatNumber(), key -> SeatSegmentDO.builder()
+                    .trainId(each.getTrainId())
+                    .carriageNumber(each.getCarriageNumber())
+                    .seatNumber(each.getSeatNumber())
+                    .seatType(each.getSeatType())
+                    .segmentStatus(0L)
+                    .build());
+        }
+        seatSegmentMap.values().forEach(each -> seatSegmentMapper.insert(each));
+    }
+
     public List<TrainStationPriceDO> selectTrainStationPrices(String trainId) {
         LambdaQueryWrapper<TrainStationPriceDO> queryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
                 .eq(TrainStationPriceDO::getTrainId, trainId);
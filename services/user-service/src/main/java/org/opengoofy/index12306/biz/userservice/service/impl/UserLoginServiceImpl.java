@@ -70,6 +70,8 @@ import static org.opengoofy.index12306.biz.userservice.common.enums.UserRegister
 import static org.opengoofy.index12306.biz.userservice.common.enums.UserRegisterErrorCodeEnum.PHONE_REGISTERED;
 import static org.opengoofy.index12306.biz.userservice.common.enums.UserRegisterErrorCodeEnum.USER_REGISTER_FAIL;
 import static org.opengoofy.index12306.biz.userservice.toolkit.UserReuseUtil.hashShardingIdx;
+import static org.opengoofy.index12306.framework.starter.bases.constant.UserConstant.REVOKED_TOKEN_CHANNEL;
+import static org.opengoofy.index12306.framework.starter.bases.constant.UserConstant.REVOKED_TOKEN_KEY;
 
 /**
  * 用户登录接口实现
@@ -146,6 +148,7 @@ public class UserLoginServiceImpl implements UserLoginService {
     public void logout(String accessToken) {
         if (StrUtil.isNotBlank(accessToken)) {
             distributedCache.delete(accessToken);
+            revokeToken(accessToken);
         }
     }
 
@@ -248,6 +251,7 @@ public class UserLoginServiceImpl implements UserLoginService {
                 userMailMapper.deletionUser(userMailDO);
             }
             distributedCache.delete(UserContext.getToken());
+            revokeToken(UserContext.getToken());
             userReuseMapper.insert(new UserReuseDO(username));
             StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
             instance.opsForSet().add(USER_REGISTER_REUSE_SHARDING + hashShardingIdx(username), username);
@@ -255,4 +259,18 @@ public class UserLoginServiceImpl implements UserLoginService {
             lock.unlock();
         }
     }
+
+    /**
+     * 吊销 Token，写入已吊销集合并广播给网关，网关在 Token 过期前拒绝该 Token
+     */
+    private void revokeToken(String accessToken) {
+        if (StrUtil.isBlank(accessToken)) {
+            return;
+        }
+        StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
+        long now = System.currentTimeMillis();
+        instance.opsForZSet().add(REVOKED_TOKEN_KEY, accessToken, now + TimeUnit.SECONDS.toMillis(JWTUtil.EXPIRATION));
+        instance.opsForZSet().removeRangeByScore(REVOKED_TOKEN_KEY, 0, now);
+        instance.convertAndSend(REVOKED_TOKEN_CHANNEL, accessToken);
+    }
 }
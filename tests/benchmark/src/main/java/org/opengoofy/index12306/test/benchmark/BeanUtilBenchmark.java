@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.test.benchmark;
+
+import org.opengoofy.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.framework.starter.common.toolkit.BeanUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象属性复制基准测试，复现关闭订单回滚令牌时的乘车人转换
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanUtilBenchmark {
+
+    /**
+     * 单次转换乘车人数量
+     */
+    @Param({"1", "5"})
+    private int passengers;
+
+    private TrainPurchaseTicketRespDTO source;
+
+    private List<TrainPurchaseTicketRespDTO> sources;
+
+    @Setup
+    public void setup() {
+        sources = new ArrayList<>(passengers);
+        for (int i = 0; i < passengers; i++) {
+            TrainPurchaseTicketRespDTO each = new TrainPurchaseTicketRespDTO();
+            each.setPassengerId(String.valueOf(i));
+            each.setRealName("乘车人" + i);
+            each.setIdType(0);
+            each.setIdCard("11010119900307" + String.format("%04d", i));
+            each.setPhone("1300000000" + i % 10);
+            each.setUserType(0);
+            each.setSeatType(2);
+            each.setCarriageNumber("03");
+            each.setSeatNumber("0" + (i + 1) + "A");
+            each.setAmount(55350);
+            sources.add(each);
+        }
+        source = sources.get(0);
+    }
+
+    @Benchmark
+    public TicketOrderPassengerDetailRespDTO convertOne() {
+        return BeanUtil.convert(source, TicketOrderPassengerDetailRespDTO.class);
+    }
+
+    @Benchmark
+    public List<TicketOrderPassengerDetailRespDTO> convertList() {
+        return BeanUtil.convert(sources, TicketOrderPassengerDetailRespDTO.class);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.test.benchmark;
+
+import org.opengoofy.index12306.biz.orderservice.service.orderid.DistributedIdGenerator;
+import org.opengoofy.index12306.framework.starter.distributedid.core.snowflake.Snowflake;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式 ID 生成基准测试，多线程共享同一生成器实例以体现锁竞争以及序列号耗尽后的等待
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private Snowflake snowflake;
+
+    private DistributedIdGenerator distributedIdGenerator;
+
+    @Setup
+    public void setup() {
+        snowflake = new Snowflake(1, 1);
+        distributedIdGenerator = new DistributedIdGenerator(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long snowflakeNextId() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long snowflakeNextIdContended() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long distributedIdGenerateId() {
+        return distributedIdGenerator.generateId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long distributedIdGenerateIdContended() {
+        return distributedIdGenerator.generateId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long snowflakeNextIdHighlyContended() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long distributedIdGenerateIdHighlyContended() {
+        return distributedIdGenerator.generateId();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.test.benchmark;
+
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
+import org.opengoofy.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.SeatService;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.TrainSecondClassPurchaseTicketHandler;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import org.opengoofy.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
+import org.opengoofy.index12306.biz.ticketservice.toolkit.SeatNumberUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 座位分配基准测试，基于内存中随机生成的高铁二等座车厢座位图
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatSelectionBenchmark {
+
+    private static final int SECOND_CLASS_ROWS = 18;
+    private static final int SECOND_CLASS_COLUMNS = 5;
+    private static final int SECOND_CLASS_SEAT_TYPE = 2;
+
+    /**
+     * 已售座位占比
+     */
+    @Param({"0.3", "0.7", "0.95"})
+    private double occupancy;
+
+    /**
+     * 单次购票乘车人数量
+     */
+    @Param({"2", "5"})
+    private int passengers;
+
+    @Param({"8"})
+    private int carriages;
+
+    private int[][] seatLayout;
+
+    private SecondClassSeatSelectHandler secondClassSeatSelectHandler;
+
+    private SelectSeatDTO selectSeatDTO;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(12306L);
+        seatLayout = new int[SECOND_CLASS_ROWS][SECOND_CLASS_COLUMNS];
+        for (int i = 0; i < SECOND_CLASS_ROWS; i++) {
+            for (int j = 0; j < SECOND_CLASS_COLUMNS; j++) {
+                seatLayout[i][j] = random.nextDouble() < occupancy ? 1 : 0;
+            }
+        }
+        List<String> carriageNumbers = new ArrayList<>(carriages);
+        List<Integer> remainingTickets = new ArrayList<>(carriages);
+        Map<String, List<String>> availableSeatMap = new HashMap<>(carriages << 1);
+        for (int carriage = 1; carriage <= carriages; carriage++) {
+            String carriageNumber = String.format("%02d", carriage);
+            List<String> availableSeats = new ArrayList<>();
+            for (int row = 1; row <= SECOND_CLASS_ROWS; row++) {
+                for (int column = 1; column <= SECOND_CLASS_COLUMNS; column++) {
+                    if (random.nextDouble() >= occupancy) {
+                        availableSeats.add(String.format("%02d", row) + SeatNumberUtil.convert(2, column));
+                    }
+                }
+            }
+            carriageNumbers.add(carriageNumber);
+            remainingTickets.add(availableSeats.size());
+            availableSeatMap.put(carriageNumber, availableSeats);
+        }
+        secondClassSeatSelectHandler = new SecondClassSeatSelectHandler(inMemorySeatService(carriageNumbers, remainingTickets, availableSeatMap));
+        List<PurchaseTicketPassengerDetailDTO> passengerDetails = new ArrayList<>(passengers);
+        for (int i = 0; i < passengers; i++) {
+            PurchaseTicketPassengerDetailDTO passengerDetail = new PurchaseTicketPassengerDetailDTO();
+            passengerDetail.setPassengerId(String.valueOf(i));
+            passengerDetail.setSeatType(SECOND_CLASS_SEAT_TYPE);
+            passengerDetails.add(passengerDetail);
+        }
+        PurchaseTicketReqDTO requestParam = new PurchaseTicketReqDTO();
+        requestParam.setTrainId("1");
+        requestParam.setDeparture("北京南");
+        requestParam.setArrival("杭州东");
+        requestParam.setPassengers(passengerDetails);
+        selectSeatDTO = SelectSeatDTO.builder()
+                .seatType(SECOND_CLASS_SEAT_TYPE)
+                .passengerSeatDetails(passengerDetails)
+                .requestParam(requestParam)
+                .build();
+    }
+
+    @Benchmark
+    public int[][] adjacent() {
+        return SeatSelection.adjacent(passengers, seatLayout);
+    }
+
+    @Benchmark
+    public int[][] nonAdjacent() {
+        return SeatSelection.nonAdjacent(passengers, seatLayout);
+    }
+
+    @Benchmark
+    public List<TrainPurchaseTicketRespDTO> secondClassSelectSeats() {
+        return secondClassSeatSelectHandler.select(selectSeatDTO);
+    }
+
+    /**
+     * 暴露高铁二等座选座逻辑，跳过购票模板中的缓存扣减
+     */
+    private static final class SecondClassSeatSelectHandler extends TrainSecondClassPurchaseTicketHandler {
+
+        private SecondClassSeatSelectHandler(SeatService seatService) {
+            super(seatService);
+        }
+
+        private List<TrainPurchaseTicketRespDTO> select(SelectSeatDTO requestParam) {
+            return selectSeats(requestParam);
+        }
+    }
+
+    /**
+     * 内存座位服务，选座过程中不锁定座位，保证每次调用面对相同的座位图
+     * {@link SeatService} 继承 MyBatis-Plus IService，通过动态代理仅实现选座所需方法
+     */
+    private static SeatService inMemorySeatService(List<String> carriageNumbers, List<Integer> remainingTickets, Map<String, List<String>> availableSeatMap) {
+        return (SeatService) Proxy.newProxyInstance(
+                SeatService.class.getClassLoader(),
+                new Class<?>[]{SeatService.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "listUsableCarriageNumber" -> carriageNumbers;
+                    case "listSeatRemainingTicket" -> remainingTickets;
+                    case "listAvailableSeat" -> availableSeatMap.get((String) args[1]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengoofy.index12306.test.benchmark;
+
+import org.opengoofy.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import org.opengoofy.index12306.biz.ticketservice.toolkit.StationCalculateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 站点路线计算基准测试，出发站与到达站取列车中间区段
+ *
+ * @公众号：马丁玩编程，回复：加群，添加马哥微信（备注：12306）获取项目资料
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StationCalculateBenchmark {
+
+    /**
+     * 列车经停站数量
+     */
+    @Param({"5", "15", "30"})
+    private int stationCount;
+
+    private List<String> stations;
+
+    private String startStation;
+
+    private String endStation;
+
+    @Setup
+    public void setup() {
+        stations = new ArrayList<>(stationCount);
+        for (int i = 0; i < stationCount; i++) {
+            stations.add("站点" + i);
+        }
+        startStation = stations.get(stationCount / 4);
+        endStation = stations.get(stationCount - 1 - stationCount / 4);
+    }
+
+    @Benchmark
+    public List<RouteDTO> throughStation() {
+        return StationCalculateUtil.throughStation(stations, startStation, endStation);
+    }
+
+    @Benchmark
+    public List<RouteDTO> takeoutStation() {
+        return StationCalculateUtil.takeoutStation(stations, startStation, endStation);
+    }
+
+    @Benchmark
+    public long segmentMask() {
+        return StationCalculateUtil.segmentMask(stations, startStation, endStation);
+    }
+}